@@ -0,0 +1,46 @@
+package viewer3D.Math;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The BatchTransform backend using the JDK Vector API, which transforms as many 
+ * points per instruction as the preferred vector shape has double lanes (4 with 
+ * AVX2, 8 with AVX-512). Only compiled by the SIMD build profile
+ * @author Arik Dicks
+ */
+public class VectorBatchTransform implements BatchTransform {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void transform(double[] m, 
+            double[] srcX, double[] srcY, double[] srcZ, 
+            double[] dstX, double[] dstY, double[] dstZ, 
+            int offset, int count) {
+        double m0 = m[0], m1 = m[1], m2 = m[2], m3 = m[3];
+        double m4 = m[4], m5 = m[5], m6 = m[6], m7 = m[7];
+        double m8 = m[8], m9 = m[9], m10 = m[10], m11 = m[11];
+        int i = offset;
+        int end = offset + count;
+        int upperBound = offset + SPECIES.loopBound(count);
+        for (; i < upperBound; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, srcX, i);
+            DoubleVector y = DoubleVector.fromArray(SPECIES, srcY, i);
+            DoubleVector z = DoubleVector.fromArray(SPECIES, srcZ, i);
+            x.mul(m0).add(y.mul(m1)).add(z.mul(m2)).add(m3).intoArray(dstX, i);
+            x.mul(m4).add(y.mul(m5)).add(z.mul(m6)).add(m7).intoArray(dstY, i);
+            x.mul(m8).add(y.mul(m9)).add(z.mul(m10)).add(m11).intoArray(dstZ, i);
+        }
+        // Remaining points that do not fill a whole vector
+        for (; i < end; i++) {
+            double x = srcX[i], y = srcY[i], z = srcZ[i];
+            dstX[i] = m0*x + m1*y + m2*z + m3;
+            dstY[i] = m4*x + m5*y + m6*z + m7;
+            dstZ[i] = m8*x + m9*y + m10*z + m11;
+        }
+    }
+    @Override
+    public String getName() {
+        return "Vector (" + SPECIES.length() + " lanes)";
+    }
+}
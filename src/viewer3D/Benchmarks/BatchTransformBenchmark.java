@@ -0,0 +1,60 @@
+package viewer3D.Benchmarks;
+
+import viewer3D.GraphicsEngine.Polygon;
+import viewer3D.GraphicsEngine.TestWorldSpace;
+import viewer3D.Math.BatchTransform;
+import viewer3D.Math.Mat4;
+import viewer3D.Math.Matrix;
+import viewer3D.Math.Vec3;
+import viewer3D.Math.Vector;
+
+/**
+ * Compares the throughput of the scalar and vector BatchTransform backends on the
+ * vertices of the TestWorldSpace. The vector backend is only measured when the 
+ * project was built with the SIMD profile and the JVM was started with
+ * --add-modules jdk.incubator.vector
+ * @author Arik Dicks
+ */
+public class BatchTransformBenchmark {
+    public static void main(String[] args) {
+        Polygon[] polygons = new TestWorldSpace().getPolygons();
+        int count = polygons.length*3;
+        final double[] x = new double[count];
+        final double[] y = new double[count];
+        final double[] z = new double[count];
+        for (int i = 0; i < polygons.length; i++) {
+            for (int j = 0; j < 3; j++) {
+                Vector vertex = polygons[i].getVertex(j);
+                x[i*3 + j] = vertex.getComponent(0);
+                y[i*3 + j] = vertex.getComponent(1);
+                z[i*3 + j] = vertex.getComponent(2);
+            }
+        }
+        final double[] outX = new double[count];
+        final double[] outY = new double[count];
+        final double[] outZ = new double[count];
+        final double[] m = new Mat4().setView(
+                Matrix.get3DXRotationMatrix(Math.toRadians(15)).multiply(Matrix.get3DYRotationMatrix(Math.toRadians(-30))), 
+                new Vec3(10, 150, -450)).getElements();
+        System.out.println("Transforming " + count + " vertices per frame");
+        
+        final BatchTransform scalar = BatchTransform.getScalar();
+        double scalarTime = Benchmark.time(scalar.getName(), 2000, 5000, () -> {
+            scalar.transform(m, x, y, z, outX, outY, outZ, 0, count);
+            return outZ[count - 1];
+        });
+        System.out.println(String.format("%-40s %12.1f Mvertices/s", "", count/scalarTime*1000));
+        
+        final BatchTransform vector = BatchTransform.getVector();
+        if (vector == null) {
+            System.out.println("Vector backend unavailable (build with -Dsimd.enabled=true and run with --add-modules jdk.incubator.vector)");
+            return;
+        }
+        double vectorTime = Benchmark.time(vector.getName(), 2000, 5000, () -> {
+            vector.transform(m, x, y, z, outX, outY, outZ, 0, count);
+            return outZ[count - 1];
+        });
+        System.out.println(String.format("%-40s %12.1f Mvertices/s", "", count/vectorTime*1000));
+        Benchmark.printSpeedup("Speedup", scalarTime, vectorTime);
+    }
+}
@@ -0,0 +1,72 @@
+package viewer3D.Benchmarks;
+
+/**
+ * A minimal timing harness for the benchmarks in this package. Each operation is
+ * run for a number of warm-up iterations so the JIT can compile it, and then timed
+ * over a number of measured iterations
+ * @author Arik Dicks
+ */
+public class Benchmark {
+    private static final int DEFAULT_WARMUP_ITERATIONS = 50;
+    private static final int DEFAULT_MEASURED_ITERATIONS = 200;
+
+    /**
+     * Results of benchmarked operations are accumulated here so the JIT cannot 
+     * eliminate them as dead code
+     */
+    public static volatile double sink;
+
+    /**
+     * An operation to be timed
+     */
+    public interface Operation {
+        /**
+         * Runs the operation once
+         * @return A value derived from the work done, which is fed to the sink
+         */
+        double run();
+    }
+
+    /**
+     * Times the given operation with the default number of iterations and prints the result
+     * @param name The name of the operation
+     * @param operation The operation
+     * @return The average elapsed time of one run of the operation, in nanoseconds
+     */
+    public static double time(String name, Operation operation) {
+        return time(name, DEFAULT_WARMUP_ITERATIONS, DEFAULT_MEASURED_ITERATIONS, operation);
+    }
+
+    /**
+     * Times the given operation and prints the result
+     * @param name The name of the operation
+     * @param warmupIterations The number of untimed runs
+     * @param measuredIterations The number of timed runs
+     * @param operation The operation
+     * @return The average elapsed time of one run of the operation, in nanoseconds
+     */
+    public static double time(String name, int warmupIterations, int measuredIterations, Operation operation) {
+        double total = 0;
+        for (int i = 0; i < warmupIterations; i++) {
+            total += operation.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < measuredIterations; i++) {
+            total += operation.run();
+        }
+        double elapsed = (System.nanoTime() - start)/(double)measuredIterations;
+        sink += total;
+        System.out.println(String.format("%-40s %12.3f us/op", name, elapsed/1000));
+        return elapsed;
+    }
+
+    /**
+     * Prints the ratio of two timings
+     * @param name A description of the comparison
+     * @param baseline The baseline timing
+     * @param candidate The timing being compared against the baseline
+     */
+    public static void printSpeedup(String name, double baseline, double candidate) {
+        System.out.println(String.format("%-40s %12.2fx", name, baseline/candidate));
+    }
+}
@@ -0,0 +1,128 @@
+package viewer3D.Benchmarks;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import viewer3D.GraphicsEngine.Camera;
+import viewer3D.GraphicsEngine.Polygon;
+import viewer3D.GraphicsEngine.Rasterizer;
+import viewer3D.GraphicsEngine.StreetWorldSpace;
+import viewer3D.GraphicsEngine.TestWorldSpace;
+import viewer3D.GraphicsEngine.WorldSpace;
+import viewer3D.Math.Vector;
+
+/**
+ * Compares the z-buffered edge function rasterizer with the BSP engine, which walks a
+ * tree built once over the static world front to back into a coverage buffer, from the
+ * starting camera position and from a low position looking past the nearest cuboids.
+ * The time of the first BSP frame, which builds the tree, is reported separately, along
+ * with the fragments each engine writes and the pixels differing between their images.
+ * Two small scenes check the cases the tree must handle specially: a degenerate
+ * triangle, which has no plane, and two coplanar triangles facing opposite ways
+ * @author Arik Dicks
+ */
+public class BspBenchmark {
+    private static final int WIDTH = 730;
+    private static final int HEIGHT = 730;
+
+    public static void main(String[] args) {
+        WorldSpace[] worlds = {new TestWorldSpace(), new StreetWorldSpace()};
+        String[] names = {"Test", "Street"};
+        int[][] poses = {{0, 150, -450, 0}, {-50, 40, -80, 330}};
+        String[] poseNames = {"start", "low"};
+        for (int i = 0; i < worlds.length; i++) {
+            final Camera zBufferCamera = new Camera(worlds[i].getMeshBuffer(), WIDTH, HEIGHT, null);
+            zBufferCamera.setRasterizer(Rasterizer.EDGE_FUNCTION);
+            final Camera bspCamera = new Camera(worlds[i].getMeshBuffer(), WIDTH, HEIGHT, null);
+            bspCamera.setRasterizer(Rasterizer.BSP);
+            long start = System.nanoTime();
+            bspCamera.observe();
+            System.out.println(String.format("%-40s %12.3f ms", names[i] + " tree build", (System.nanoTime() - start)/1e6));
+            for (int p = 0; p < poses.length; p++) {
+                String name = names[i] + " " + poseNames[p];
+                for (Camera camera : new Camera[]{zBufferCamera, bspCamera}) {
+                    camera.setPosition(poses[p][0], poses[p][1], poses[p][2]);
+                    camera.rotate(poses[p][3], 0);
+                }
+                double baseline = run(zBufferCamera, name + " z-buffer");
+                int[] baselineImage = getPixels(zBufferCamera.observe());
+                double candidate = run(bspCamera, name + " BSP");
+                int[] image = getPixels(bspCamera.observe());
+                int differingPixels = 0;
+                for (int j = 0; j < image.length; j++) {
+                    if (image[j] != baselineImage[j]) {
+                        differingPixels++;
+                    }
+                }
+                System.out.println(String.format("%-40s %12d", name + " differing pixels", differingPixels));
+                Benchmark.printSpeedup(name + " speedup", baseline, candidate);
+                for (Camera camera : new Camera[]{zBufferCamera, bspCamera}) {
+                    camera.rotate(-poses[p][3], 0);
+                }
+            }
+        }
+
+        // A collinear triangle ahead of a quad facing the camera, and a triangle 
+        // back to back with a copy of itself wound the other way, in either order, so
+        // that either may be chosen to split the tree
+        compare("Degenerate triangle", new Polygon[]{
+                createTriangle(-20, 0, 0, 0, 0, 0, 20, 0, 0),
+                createTriangle(-20, -20, 0, -20, 20, 0, 20, 20, 0),
+                createTriangle(-20, -20, 0, 20, 20, 0, 20, -20, 0)});
+        compare("Back to back", new Polygon[]{
+                createTriangle(-20, -20, 0, -20, 20, 0, 20, 20, 0),
+                createTriangle(-20, -20, 0, 20, 20, 0, -20, 20, 0)});
+        compare("Back to back reversed", new Polygon[]{
+                createTriangle(-20, -20, 0, 20, 20, 0, -20, 20, 0),
+                createTriangle(-20, -20, 0, -20, 20, 0, 20, 20, 0)});
+    }
+
+    /**
+     * Renders the given polygons from in front of the plane z = 0 with both engines, 
+     * and prints the pixels each covers and the pixels differing between them
+     */
+    private static void compare(String name, Polygon[] polygons) {
+        int[][] images = new int[2][];
+        Rasterizer[] rasterizers = {Rasterizer.EDGE_FUNCTION, Rasterizer.BSP};
+        for (int r = 0; r < rasterizers.length; r++) {
+            Camera camera = new Camera(polygons, WIDTH, HEIGHT, null);
+            camera.setRasterizer(rasterizers[r]);
+            camera.setPosition(0, 0, -100);
+            images[r] = getPixels(camera.observe());
+            int coveredPixels = 0;
+            for (int pixel : images[r]) {
+                if (pixel != 0) {
+                    coveredPixels++;
+                }
+            }
+            System.out.println(String.format("%-40s %12d", name + " " + rasterizers[r] + " pixels", coveredPixels));
+        }
+        int differingPixels = 0;
+        for (int j = 0; j < images[0].length; j++) {
+            if (images[0][j] != images[1][j]) {
+                differingPixels++;
+            }
+        }
+        System.out.println(String.format("%-40s %12d", name + " differing pixels", differingPixels));
+    }
+    private static Polygon createTriangle(double x1, double y1, double z1, double x2, double y2, double z2,
+            double x3, double y3, double z3) {
+        Polygon polygon = new Polygon(new Vector[]{
+                new Vector(new double[]{x1, y1, z1}),
+                new Vector(new double[]{x2, y2, z2}),
+                new Vector(new double[]{x3, y3, z3})});
+        polygon.setFaceColor(Color.GRAY);
+        return polygon;
+    }
+    private static double run(Camera camera, String name) {
+        double time = Benchmark.time(name + " frame", 20, 50, () -> {
+            camera.observe();
+            return camera.getWrittenFragmentCount();
+        });
+        System.out.println(String.format("%-40s %12d", name + " fragments written", camera.getWrittenFragmentCount()));
+        return time;
+    }
+    private static int[] getPixels(BufferedImage image) {
+        return ((DataBufferInt)image.getRaster().getDataBuffer()).getData().clone();
+    }
+}
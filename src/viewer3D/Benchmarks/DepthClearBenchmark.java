@@ -0,0 +1,61 @@
+package viewer3D.Benchmarks;
+
+import java.util.Arrays;
+import viewer3D.GraphicsEngine.DepthBuffer;
+import viewer3D.GraphicsEngine.DepthFormat;
+
+/**
+ * Compares clearing a flat float depth buffer with Arrays.fill against advancing the
+ * generation of a generation-stamped DepthBuffer, at 1080p and 4K. Since a stamped 
+ * entry is twice the size of a float, each is also timed clearing and then depth 
+ * testing every pixel once, as a frame covering the whole screen would
+ * @author Arik Dicks
+ */
+public class DepthClearBenchmark {
+    private static final int[][] RESOLUTIONS = {{1920, 1080}, {3840, 2160}};
+
+    public static void main(String[] args) {
+        for (int[] resolution : RESOLUTIONS) {
+            final int width = resolution[0];
+            final int height = resolution[1];
+            final int pixelCount = width*height;
+            final float[] floatBuffer = new float[pixelCount];
+            final DepthBuffer depthBuffer = DepthBuffer.create(DepthFormat.STAMPED, width, height, 1);
+            String name = width + "x" + height;
+            
+            double fillClear = Benchmark.time(name + " Arrays.fill clear", 20, 100, () -> {
+                Arrays.fill(floatBuffer, 0);
+                return floatBuffer[0];
+            });
+            double generationClear = Benchmark.time(name + " generation clear", 20, 100, () -> {
+                depthBuffer.clear();
+                return depthBuffer.getDepth(0);
+            });
+            Benchmark.printSpeedup(name + " clear speedup", fillClear, generationClear);
+            
+            double fillFrame = Benchmark.time(name + " Arrays.fill frame", 10, 50, () -> {
+                Arrays.fill(floatBuffer, 0);
+                int written = 0;
+                for (int i = 0; i < pixelCount; i++) {
+                    float depth = 1f/(1 + (i & 1023));
+                    if (depth > floatBuffer[i]) {
+                        floatBuffer[i] = depth;
+                        written++;
+                    }
+                }
+                return written;
+            });
+            double generationFrame = Benchmark.time(name + " generation frame", 10, 50, () -> {
+                depthBuffer.clear();
+                int written = 0;
+                for (int i = 0; i < pixelCount; i++) {
+                    if (depthBuffer.testAndSet(i, 1f/(1 + (i & 1023)))) {
+                        written++;
+                    }
+                }
+                return written;
+            });
+            Benchmark.printSpeedup(name + " frame speedup", fillFrame, generationFrame);
+        }
+    }
+}
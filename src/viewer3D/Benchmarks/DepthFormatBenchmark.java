@@ -0,0 +1,89 @@
+package viewer3D.Benchmarks;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import viewer3D.GraphicsEngine.Camera;
+import viewer3D.GraphicsEngine.DepthFormat;
+import viewer3D.GraphicsEngine.Polygon;
+import viewer3D.GraphicsEngine.Rasterizer;
+import viewer3D.GraphicsEngine.TestWorldSpace;
+import viewer3D.GraphicsEngine.WorldSpace;
+import viewer3D.Math.Vector;
+
+/**
+ * Times a frame of the test world from the starting camera position in each depth
+ * format, then checks each format against FLOAT on two overlapping triangles nearer
+ * than z = 1, seen with a near plane of 0.1, drawn in either order with each z-buffered
+ * rasterizer, printing the pixels differing between their images
+ * @author Arik Dicks
+ */
+public class DepthFormatBenchmark {
+    private static final int WIDTH = 730;
+    private static final int HEIGHT = 730;
+
+    public static void main(String[] args) {
+        WorldSpace world = new TestWorldSpace();
+        final Camera camera = new Camera(world.getMeshBuffer(), WIDTH, HEIGHT, null);
+        camera.setRasterizer(Rasterizer.EDGE_FUNCTION);
+        camera.setPosition(0, 150, -450);
+        double baseline = 0;
+        for (DepthFormat format : DepthFormat.values()) {
+            camera.setDepthFormat(format);
+            double time = Benchmark.time("Test start " + format + " frame", 20, 50, () -> {
+                camera.observe();
+                return camera.getWrittenFragmentCount();
+            });
+            if (format == DepthFormat.STAMPED) {
+                baseline = time;
+            } else {
+                Benchmark.printSpeedup("Test start " + format + " speedup", baseline, time);
+            }
+        }
+
+        // A gray triangle at z = 0.6 partly hidden by a red one at z = 0.3
+        Polygon far = createTriangle(-0.4, -0.4, 0.6, -0.4, 0.4, 0.6, 0.4, 0.4, 0.6, Color.GRAY);
+        Polygon near = createTriangle(-0.1, -0.2, 0.3, -0.1, 0.2, 0.3, 0.2, 0.2, 0.3, Color.RED);
+        compare("Far first", new Polygon[]{far, near});
+        compare("Near first", new Polygon[]{near, far});
+    }
+
+    /**
+     * Renders the given polygons from the origin in every depth format with each
+     * z-buffered rasterizer, and prints the pixels differing from the FLOAT image
+     */
+    private static void compare(String name, Polygon[] polygons) {
+        for (Rasterizer rasterizer : new Rasterizer[]{Rasterizer.SCANLINE, Rasterizer.EDGE_FUNCTION, Rasterizer.TILED}) {
+            Camera camera = new Camera(polygons, WIDTH, HEIGHT, null);
+            camera.setRasterizer(rasterizer);
+            camera.setPosition(0, 0, 0);
+            camera.setNearDistance(0.1);
+            camera.setDepthFormat(DepthFormat.FLOAT);
+            int[] baselineImage = getPixels(camera.observe());
+            for (DepthFormat format : DepthFormat.values()) {
+                camera.setDepthFormat(format);
+                int[] image = getPixels(camera.observe());
+                int differingPixels = 0;
+                for (int j = 0; j < image.length; j++) {
+                    if (image[j] != baselineImage[j]) {
+                        differingPixels++;
+                    }
+                }
+                System.out.println(String.format("%-56s %12d",
+                        name + " " + rasterizer + " " + format + " differing pixels", differingPixels));
+            }
+        }
+    }
+    private static Polygon createTriangle(double x1, double y1, double z1, double x2, double y2, double z2,
+            double x3, double y3, double z3, Color color) {
+        Polygon polygon = new Polygon(new Vector[]{
+                new Vector(new double[]{x1, y1, z1}),
+                new Vector(new double[]{x2, y2, z2}),
+                new Vector(new double[]{x3, y3, z3})});
+        polygon.setFaceColor(color);
+        return polygon;
+    }
+    private static int[] getPixels(BufferedImage image) {
+        return ((DataBufferInt)image.getRaster().getDataBuffer()).getData().clone();
+    }
+}
@@ -0,0 +1,56 @@
+package viewer3D.Benchmarks;
+
+import viewer3D.Math.Plane;
+import viewer3D.Math.Vec3;
+import viewer3D.Math.Vector;
+
+/**
+ * Measures the per-pixel cost of the rasterizer's depth query over a 730x730 grid
+ * of camera rays: intersecting each ray with a Vector result and taking its length,
+ * against the scalar squared-distance query
+ * @author Arik Dicks
+ */
+public class DepthQueryBenchmark {
+    private static final int SIZE = 730;
+
+    public static void main(String[] args) {
+        final Plane plane = new Plane(new Vec3(0, -150, 300), new Vec3(0.1, 1, -0.2).normalize());
+        final Vector[] vectorRays = new Vector[SIZE*SIZE];
+        final Vec3[] rays = new Vec3[SIZE*SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                double x = 2*((double)j/(SIZE-1))-1;
+                double y = 2*((double)i/(SIZE-1))-1;
+                vectorRays[i*SIZE + j] = new Vector(new double[]{x, y, 1});
+                rays[i*SIZE + j] = new Vec3(x, y, 1);
+            }
+        }
+        int pixels = SIZE*SIZE;
+        
+        double vectorQuery = Benchmark.time("Vector lineIntersection + getLength", 10, 30, () -> {
+            double sum = 0;
+            for (int i = 0; i < vectorRays.length; i++) {
+                Vector intersection = plane.lineIntersection(vectorRays[i]);
+                if (intersection != null) {
+                    sum += intersection.getLength();
+                }
+            }
+            return sum;
+        });
+        System.out.println(String.format("%-40s %12.2f ns/pixel", "", vectorQuery/pixels));
+        
+        double scalarQuery = Benchmark.time("intersectDistanceSquared", 10, 30, () -> {
+            double sum = 0;
+            for (int i = 0; i < rays.length; i++) {
+                Vec3 ray = rays[i];
+                double z = plane.intersectDistanceSquared(ray.x, ray.y, ray.z);
+                if (!Double.isNaN(z)) {
+                    sum += z;
+                }
+            }
+            return sum;
+        });
+        System.out.println(String.format("%-40s %12.2f ns/pixel", "", scalarQuery/pixels));
+        Benchmark.printSpeedup("Speedup", vectorQuery, scalarQuery);
+    }
+}
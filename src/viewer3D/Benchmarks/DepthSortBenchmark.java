@@ -0,0 +1,68 @@
+package viewer3D.Benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import viewer3D.GraphicsEngine.Camera;
+import viewer3D.GraphicsEngine.Rasterizer;
+import viewer3D.GraphicsEngine.StreetWorldSpace;
+import viewer3D.GraphicsEngine.TestWorldSpace;
+import viewer3D.GraphicsEngine.WorldSpace;
+
+/**
+ * Compares the edge function rasterizer drawing triangles in mesh order and sorted
+ * front to back, from the starting camera position and from a low position looking 
+ * past the nearest cuboids, reporting how many fragments were depth tested, culled by
+ * the hierarchical depth buffer, and written. Pixels differing between the two images,
+ * where coplanar triangles tie in depth, are counted
+ * @author Arik Dicks
+ */
+public class DepthSortBenchmark {
+    private static final int WIDTH = 730;
+    private static final int HEIGHT = 730;
+
+    public static void main(String[] args) {
+        WorldSpace[] worlds = {new TestWorldSpace(), new StreetWorldSpace()};
+        String[] names = {"Test", "Street"};
+        int[][] poses = {{0, 150, -450, 0}, {-50, 40, -80, 330}};
+        String[] poseNames = {"start", "low"};
+        for (int i = 0; i < worlds.length; i++) {
+            final Camera camera = new Camera(worlds[i].getMeshBuffer(), WIDTH, HEIGHT, null);
+            camera.setRasterizer(Rasterizer.EDGE_FUNCTION);
+            for (int p = 0; p < poses.length; p++) {
+                String name = names[i] + " " + poseNames[p];
+                camera.setPosition(poses[p][0], poses[p][1], poses[p][2]);
+                camera.rotate(poses[p][3], 0);
+
+                camera.setFrontToBackSortEnabled(false);
+                double baseline = run(camera, name + " mesh order");
+                int[] baselineImage = getPixels(camera.observe());
+
+                camera.setFrontToBackSortEnabled(true);
+                double candidate = run(camera, name + " front to back");
+                int[] image = getPixels(camera.observe());
+                int differingPixels = 0;
+                for (int j = 0; j < image.length; j++) {
+                    if (image[j] != baselineImage[j]) {
+                        differingPixels++;
+                    }
+                }
+                System.out.println(String.format("%-40s %12d", name + " differing pixels", differingPixels));
+                Benchmark.printSpeedup(name + " speedup", baseline, candidate);
+                camera.rotate(-poses[p][3], 0);
+            }
+        }
+    }
+    private static double run(Camera camera, String name) {
+        double time = Benchmark.time(name + " frame", 20, 50, () -> {
+            camera.observe();
+            return camera.getFragmentCount();
+        });
+        System.out.println(String.format("%-40s %12d", name + " fragments tested", camera.getFragmentCount()));
+        System.out.println(String.format("%-40s %12d", name + " fragments culled", camera.getCulledFragmentCount()));
+        System.out.println(String.format("%-40s %12d", name + " fragments written", camera.getWrittenFragmentCount()));
+        return time;
+    }
+    private static int[] getPixels(BufferedImage image) {
+        return ((DataBufferInt)image.getRaster().getDataBuffer()).getData().clone();
+    }
+}
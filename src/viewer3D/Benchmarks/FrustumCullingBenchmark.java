@@ -0,0 +1,50 @@
+package viewer3D.Benchmarks;
+
+import viewer3D.GraphicsEngine.Camera;
+import viewer3D.GraphicsEngine.MeshBuffer;
+import viewer3D.GraphicsEngine.Polygon;
+import viewer3D.GraphicsEngine.Rasterizer;
+import viewer3D.GraphicsEngine.WorldSpace;
+import viewer3D.Polyhedrons.Cuboid;
+
+/**
+ * Compares rendering a city of cuboids from inside one of its streets, with the city
+ * packed into a single object that can never be culled, and with one object per cuboid
+ * so cuboids outside the view frustum are culled whole
+ * @author Arik Dicks
+ */
+public class FrustumCullingBenchmark {
+    private static final int WIDTH = 730;
+    private static final int HEIGHT = 730;
+    private static final int BLOCKS_PER_SIDE = 100;
+    private static final int BLOCK_SIZE = 100;
+    private static final int STREET_WIDTH = 100;
+
+    public static void main(String[] args) {
+        WorldSpace city = new WorldSpace();
+        int start = -BLOCKS_PER_SIDE*(BLOCK_SIZE + STREET_WIDTH)/2;
+        for (int i = 0; i < BLOCKS_PER_SIDE; i++) {
+            for (int j = 0; j < BLOCKS_PER_SIDE; j++) {
+                city.add(new Cuboid(start + i*(BLOCK_SIZE + STREET_WIDTH), 0, start + j*(BLOCK_SIZE + STREET_WIDTH),
+                        BLOCK_SIZE, 300, BLOCK_SIZE));
+            }
+        }
+        Polygon[] polygons = city.getPolygons();
+        System.out.println(String.format("%-40s %12d", "Cuboids", BLOCKS_PER_SIDE*BLOCKS_PER_SIDE));
+        System.out.println(String.format("%-40s %12d", "Triangles", polygons.length));
+        double singleObject = run("Single object", new MeshBuffer(polygons));
+        double perCuboid = run("Object per cuboid", city.getMeshBuffer());
+        Benchmark.printSpeedup("Frustum culling speedup", singleObject, perCuboid);
+    }
+    private static double run(String name, MeshBuffer mesh) {
+        final Camera camera = new Camera(mesh, WIDTH, HEIGHT, null);
+        camera.setRasterizer(Rasterizer.EDGE_FUNCTION);
+        camera.setPosition(-STREET_WIDTH/2, 150, 0);
+        double time = Benchmark.time(name + " frame", 20, 50, () -> {
+            camera.observe();
+            return camera.getFragmentCount();
+        });
+        System.out.println(String.format("%-40s %12d", name + " objects culled", camera.getCulledObjectCount()));
+        return time;
+    }
+}
@@ -0,0 +1,59 @@
+package viewer3D.Benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import viewer3D.GraphicsEngine.Camera;
+import viewer3D.GraphicsEngine.Rasterizer;
+import viewer3D.GraphicsEngine.StreetWorldSpace;
+import viewer3D.GraphicsEngine.TestWorldSpace;
+import viewer3D.GraphicsEngine.WorldSpace;
+
+/**
+ * Compares the edge function rasterizer with and without hierarchical depth rejection,
+ * from the starting camera position and from a low position looking past the nearest
+ * cuboids, reporting how many fragments were depth tested and how many were culled.
+ * Every frame with rejection is checked against the image without it
+ * @author Arik Dicks
+ */
+public class HiZBenchmark {
+    private static final int WIDTH = 730;
+    private static final int HEIGHT = 730;
+
+    public static void main(String[] args) {
+        WorldSpace[] worlds = {new TestWorldSpace(), new StreetWorldSpace()};
+        String[] names = {"Test", "Street"};
+        int[][] poses = {{0, 150, -450, 0}, {-50, 40, -80, 330}};
+        String[] poseNames = {"start", "low"};
+        for (int i = 0; i < worlds.length; i++) {
+            final Camera camera = new Camera(worlds[i].getMeshBuffer(), WIDTH, HEIGHT, null);
+            camera.setRasterizer(Rasterizer.EDGE_FUNCTION);
+            for (int p = 0; p < poses.length; p++) {
+                String name = names[i] + " " + poseNames[p];
+                camera.setPosition(poses[p][0], poses[p][1], poses[p][2]);
+                camera.rotate(poses[p][3], 0);
+
+                camera.setHiZEnabled(false);
+                double baseline = Benchmark.time(name + " without Hi-Z", 20, 50, () -> {
+                    camera.observe();
+                    return camera.getFragmentCount();
+                });
+                int[] baselineImage = getPixels(camera.observe());
+
+                camera.setHiZEnabled(true);
+                double candidate = Benchmark.time(name + " with Hi-Z", 20, 50, () -> {
+                    camera.observe();
+                    return camera.getFragmentCount();
+                });
+                boolean isIdentical = Arrays.equals(baselineImage, getPixels(camera.observe()));
+                System.out.println(String.format("%-40s %12d", name + " fragments tested", camera.getFragmentCount()));
+                System.out.println(String.format("%-40s %12d", name + " fragments culled", camera.getCulledFragmentCount()));
+                Benchmark.printSpeedup(name + " speedup" + (isIdentical? "" : " (IMAGE MISMATCH)"), baseline, candidate);
+                camera.rotate(-poses[p][3], 0);
+            }
+        }
+    }
+    private static int[] getPixels(BufferedImage image) {
+        return ((DataBufferInt)image.getRaster().getDataBuffer()).getData().clone();
+    }
+}
@@ -0,0 +1,38 @@
+package viewer3D.Benchmarks;
+
+import viewer3D.GraphicsEngine.Camera;
+import viewer3D.GraphicsEngine.MeshBuffer;
+import viewer3D.GraphicsEngine.Rasterizer;
+import viewer3D.Polyhedrons.Floor;
+import viewer3D.Polyhedrons.Polyhedron;
+
+/**
+ * Compares rendering a large floor grid with three vertices of its own per triangle,
+ * and indexed, with every grid vertex shared by the triangles around it and so 
+ * transformed once per frame
+ * @author Arik Dicks
+ */
+public class IndexedMeshBenchmark {
+    private static final int WIDTH = 730;
+    private static final int HEIGHT = 730;
+    private static final int SQUARES_PER_SIDE = 400;
+    private static final int SQUARE_SIZE = 10;
+
+    public static void main(String[] args) {
+        int start = -SQUARES_PER_SIDE*SQUARE_SIZE/2;
+        Floor floor = new Floor(SQUARES_PER_SIDE, SQUARES_PER_SIDE, SQUARE_SIZE, SQUARE_SIZE, start, start);
+        double unindexed = run("Unindexed", new MeshBuffer(floor.getPolygons()));
+        double indexed = run("Indexed", new MeshBuffer(new Polyhedron[]{floor}));
+        Benchmark.printSpeedup("Indexed mesh speedup", unindexed, indexed);
+    }
+    private static double run(String name, MeshBuffer mesh) {
+        final Camera camera = new Camera(mesh, WIDTH, HEIGHT, null);
+        camera.setRasterizer(Rasterizer.EDGE_FUNCTION);
+        camera.setPosition(0, 150, 0);
+        System.out.println(String.format("%-40s %12d", name + " vertices", mesh.getVertexCount()));
+        return Benchmark.time(name + " frame", 20, 50, () -> {
+            camera.observe();
+            return camera.getFragmentCount();
+        });
+    }
+}
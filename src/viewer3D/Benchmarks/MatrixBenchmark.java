@@ -0,0 +1,182 @@
+package viewer3D.Benchmarks;
+
+import java.util.Random;
+import viewer3D.Math.Mat3;
+import viewer3D.Math.Mat4;
+import viewer3D.Math.Matrix;
+import viewer3D.Math.Vec3;
+import viewer3D.Math.Vector;
+
+/**
+ * Checks the unrolled Mat3 and Mat4 operations against the generic Matrix on
+ * randomized inputs, then compares the cost of multiplying, inverting and
+ * transforming with each
+ * @author Arik Dicks
+ */
+public class MatrixBenchmark {
+    private static final int CHECKS = 10000;
+    private static final int OPERATIONS = 100000;
+    private static final double TOLERANCE = 1e-9;
+
+    public static void main(String[] args) {
+        Random random = new Random(7);
+        int failures = checkMat3(random) + checkMat4(random);
+        System.out.println(String.format("%-40s %12d", "Randomized check failures", failures));
+        if (failures > 0) {
+            System.exit(1);
+        }
+
+        final Matrix genericA = randomMatrix(random, 4);
+        final Matrix genericB = randomMatrix(random, 4);
+        final Mat4 a = new Mat4(genericA);
+        final Mat4 b = new Mat4(genericB);
+        final Mat4 product = new Mat4();
+        double genericMultiply = Benchmark.time("Matrix 4x4 multiply (" + OPERATIONS + ")", 20, 50, () -> {
+            double sum = 0;
+            for (int i = 0; i < OPERATIONS; i++) {
+                sum += genericA.multiply(genericB).getElement(0, 0);
+            }
+            return sum;
+        });
+        double unrolledMultiply = Benchmark.time("Mat4 multiply (" + OPERATIONS + ")", 20, 50, () -> {
+            for (int i = 0; i < OPERATIONS; i++) {
+                a.multiplyInto(b, product);
+            }
+            return product.getElement(0, 0);
+        });
+        Benchmark.printSpeedup("Multiply speedup", genericMultiply, unrolledMultiply);
+
+        final Mat4 inverse = new Mat4();
+        Benchmark.time("Mat4 invert (" + OPERATIONS + ")", 20, 50, () -> {
+            for (int i = 0; i < OPERATIONS; i++) {
+                a.invertInto(inverse);
+            }
+            return inverse.getElement(0, 0);
+        });
+
+        final Matrix genericRotation = randomMatrix(random, 3);
+        final Mat3 rotation = new Mat3(genericRotation);
+        final Vector genericPoint = new Vector(new double[]{1, 2, 3});
+        final Vec3 point = new Vec3(1, 2, 3);
+        final Vec3 transformed = new Vec3();
+        double genericTransform = Benchmark.time("Matrix 3x3 transform (" + OPERATIONS + ")", 20, 50, () -> {
+            double sum = 0;
+            for (int i = 0; i < OPERATIONS; i++) {
+                sum += genericRotation.multiply(genericPoint).getComponent(0);
+            }
+            return sum;
+        });
+        double unrolledTransform = Benchmark.time("Mat3 transform (" + OPERATIONS + ")", 20, 50, () -> {
+            double sum = 0;
+            for (int i = 0; i < OPERATIONS; i++) {
+                sum += rotation.transform(point, transformed).x;
+            }
+            return sum;
+        });
+        Benchmark.printSpeedup("Transform speedup", genericTransform, unrolledTransform);
+    }
+    private static int checkMat3(Random random) {
+        int failures = 0;
+        Mat3 product = new Mat3();
+        Mat3 inverse = new Mat3();
+        Mat3 identity = new Mat3();
+        Vec3 transformed = new Vec3();
+        for (int n = 0; n < CHECKS; n++) {
+            Matrix genericA = randomMatrix(random, 3);
+            Matrix genericB = randomMatrix(random, 3);
+            Mat3 a = new Mat3(genericA);
+            Mat3 b = new Mat3(genericB);
+            if (!agrees(a.multiplyInto(b, product).toMatrix(), genericA.multiply(genericB))) {
+                failures++;
+            }
+            if (a.invertInto(inverse) != null
+                    && !agrees(a.multiplyInto(inverse, product).toMatrix(), identity.toMatrix())) {
+                failures++;
+            }
+            Vector genericPoint = randomVector(random, 3);
+            Vector expected = genericA.multiply(genericPoint);
+            a.transform(new Vec3(genericPoint), transformed);
+            if (!agrees(transformed.toVector(), expected)) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+    private static int checkMat4(Random random) {
+        int failures = 0;
+        Mat4 product = new Mat4();
+        Mat4 inverse = new Mat4();
+        Mat4 identity = new Mat4();
+        Vec3 transformed = new Vec3();
+        for (int n = 0; n < CHECKS; n++) {
+            Matrix genericA = randomMatrix(random, 4);
+            Matrix genericB = randomMatrix(random, 4);
+            Mat4 a = new Mat4(genericA);
+            Mat4 b = new Mat4(genericB);
+            if (!agrees(a.multiplyInto(b, product).toMatrix(), genericA.multiply(genericB))) {
+                failures++;
+            }
+            if (a.invertInto(inverse) != null
+                    && !agrees(a.multiplyInto(inverse, product).toMatrix(), identity.toMatrix())) {
+                failures++;
+            }
+
+            // Points carry an implicit w of 1, which only matches the generic product
+            // when the bottom row is (0, 0, 0, 1)
+            Matrix genericAffine = randomMatrix(random, 4);
+            double[][] rows = new double[4][4];
+            for (int i = 0; i < 4; i++) {
+                for (int j = 0; j < 4; j++) {
+                    rows[i][j] = (i < 3)? genericAffine.getElement(i, j) : (j == 3)? 1 : 0;
+                }
+            }
+            genericAffine = new Matrix(rows);
+            Vector genericPoint = randomVector(random, 3);
+            Vector homogeneousPoint = new Vector(new double[]{
+                genericPoint.getComponent(0), genericPoint.getComponent(1), genericPoint.getComponent(2), 1});
+            Vector expected = genericAffine.multiply(homogeneousPoint);
+            new Mat4(genericAffine).transformPoint(new Vec3(genericPoint), transformed);
+            if (!agrees(transformed.toVector(), new Vector(new double[]{
+                    expected.getComponent(0), expected.getComponent(1), expected.getComponent(2)}))) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+    private static Matrix randomMatrix(Random random, int size) {
+        double[][] rows = new double[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                rows[i][j] = random.nextDouble()*2 - 1;
+            }
+        }
+        return new Matrix(rows);
+    }
+    private static Vector randomVector(Random random, int size) {
+        double[] components = new double[size];
+        for (int i = 0; i < size; i++) {
+            components[i] = random.nextDouble()*200 - 100;
+        }
+        return new Vector(components);
+    }
+    private static boolean agrees(Matrix actual, Matrix expected) {
+        for (int i = 0; i < expected.getNumOfRows(); i++) {
+            for (int j = 0; j < expected.getNumOfColumns(); j++) {
+                double scale = Math.max(1, Math.abs(expected.getElement(i, j)));
+                if (Math.abs(actual.getElement(i, j) - expected.getElement(i, j)) > TOLERANCE*scale) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+    private static boolean agrees(Vector actual, Vector expected) {
+        for (int i = 0; i < 3; i++) {
+            double scale = Math.max(1, Math.abs(expected.getComponent(i)));
+            if (Math.abs(actual.getComponent(i) - expected.getComponent(i)) > TOLERANCE*scale) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
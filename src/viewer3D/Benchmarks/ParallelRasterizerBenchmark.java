@@ -0,0 +1,84 @@
+package viewer3D.Benchmarks;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import viewer3D.GraphicsEngine.Camera;
+import viewer3D.GraphicsEngine.MeshBuffer;
+import viewer3D.GraphicsEngine.Polygon;
+import viewer3D.GraphicsEngine.Rasterizer;
+import viewer3D.GraphicsEngine.TestWorldSpace;
+import viewer3D.Math.Vector;
+
+/**
+ * Measures how the tiled rasterizer scales with the number of threads, on the test 
+ * world and on a synthetic wall of about a million triangles filling the screen. 
+ * Every tiled frame is checked against the image of the serial edge function path
+ * @author Arik Dicks
+ */
+public class ParallelRasterizerBenchmark {
+    private static final int WIDTH = 730;
+    private static final int HEIGHT = 730;
+    private static final int WALL_QUADS_PER_SIDE = 708;
+
+    public static void main(String[] args) {
+        run("Test", new TestWorldSpace().getMeshBuffer(), 20, 50);
+        run("1M triangles", new MeshBuffer(createWall(WALL_QUADS_PER_SIDE)), 3, 10);
+    }
+    private static void run(String name, MeshBuffer mesh, int warmupIterations, int measuredIterations) {
+        final Camera camera = new Camera(mesh, WIDTH, HEIGHT, null);
+        camera.setPosition(0, 150, -450);
+        camera.setRasterizer(Rasterizer.EDGE_FUNCTION);
+        double serial = Benchmark.time(name + " serial", warmupIterations, measuredIterations, () -> {
+            camera.observe();
+            return camera.getFragmentCount();
+        });
+        int[] serialImage = getPixels(camera.observe());
+        
+        camera.setRasterizer(Rasterizer.TILED);
+        int maxParallelism = Math.max(4, Runtime.getRuntime().availableProcessors());
+        for (int parallelism = 1; parallelism <= maxParallelism; parallelism *= 2) {
+            camera.setParallelism(parallelism);
+            double tiled = Benchmark.time(name + " tiled, " + parallelism + " threads", warmupIterations, measuredIterations, () -> {
+                camera.observe();
+                return camera.getFragmentCount();
+            });
+            boolean isIdentical = Arrays.equals(serialImage, getPixels(camera.observe()));
+            Benchmark.printSpeedup(name + " speedup" + (isIdentical? "" : " (IMAGE MISMATCH)"), serial, tiled);
+        }
+        System.out.println(String.format("%-40s %12d", "Available processors", Runtime.getRuntime().availableProcessors()));
+    }
+    private static int[] getPixels(BufferedImage image) {
+        return ((DataBufferInt)image.getRaster().getDataBuffer()).getData().clone();
+    }
+
+    /**
+     * Creates a wall facing the starting camera position, made of quadsPerSide^2 
+     * checkered squares of two triangles each
+     */
+    private static Polygon[] createWall(int quadsPerSide) {
+        double halfSize = 700;
+        double step = 2*halfSize/quadsPerSide;
+        double z = 200;
+        Color[] colors = {Color.BLUE, Color.GREEN};
+        Polygon[] polygons = new Polygon[quadsPerSide*quadsPerSide*2];
+        int polygonIndex = 0;
+        for (int i = 0; i < quadsPerSide; i++) {
+            for (int j = 0; j < quadsPerSide; j++) {
+                double x0 = -halfSize + j*step, x1 = x0 + step;
+                double y0 = 150 - halfSize + i*step, y1 = y0 + step;
+                Vector bottomLeft = new Vector(new double[]{x0, y0, z});
+                Vector bottomRight = new Vector(new double[]{x1, y0, z});
+                Vector topLeft = new Vector(new double[]{x0, y1, z});
+                Vector topRight = new Vector(new double[]{x1, y1, z});
+                Color color = colors[(i + j)%2];
+                polygons[polygonIndex] = new Polygon(new Vector[]{bottomLeft, topLeft, bottomRight});
+                polygons[polygonIndex++].setFaceColor(color);
+                polygons[polygonIndex] = new Polygon(new Vector[]{topLeft, topRight, bottomRight});
+                polygons[polygonIndex++].setFaceColor(color);
+            }
+        }
+        return polygons;
+    }
+}
@@ -0,0 +1,39 @@
+package viewer3D.Benchmarks;
+
+import viewer3D.GraphicsEngine.Camera;
+import viewer3D.GraphicsEngine.Rasterizer;
+import viewer3D.GraphicsEngine.StreetWorldSpace;
+import viewer3D.GraphicsEngine.TestWorldSpace;
+import viewer3D.GraphicsEngine.WorldSpace;
+
+/**
+ * Compares the fill rate of each rasterizer by rendering the test and street worlds 
+ * from the starting camera position, reporting both the frame time and the number 
+ * of fragments (pixels inside a triangle) rasterized per second
+ * @author Arik Dicks
+ */
+public class RasterizerBenchmark {
+    private static final int WIDTH = 730;
+    private static final int HEIGHT = 730;
+
+    public static void main(String[] args) {
+        WorldSpace[] worlds = {new TestWorldSpace(), new StreetWorldSpace()};
+        String[] names = {"Test", "Street"};
+        for (int i = 0; i < worlds.length; i++) {
+            final Camera camera = new Camera(worlds[i].getMeshBuffer(), WIDTH, HEIGHT, null);
+            camera.setPosition(0, 150, -450);
+            double[] timings = new double[Rasterizer.values().length];
+            for (Rasterizer rasterizer : Rasterizer.values()) {
+                camera.setRasterizer(rasterizer);
+                timings[rasterizer.ordinal()] = Benchmark.time(names[i] + " " + rasterizer + " frame", 20, 50, () -> {
+                    camera.observe();
+                    return camera.getFragmentCount();
+                });
+                double pixelsPerSecond = camera.getFragmentCount()/(timings[rasterizer.ordinal()]/1e9);
+                System.out.println(String.format("%-40s %12.1f Mpixels/s", names[i] + " " + rasterizer + " fill rate", pixelsPerSecond/1e6));
+            }
+            Benchmark.printSpeedup(names[i] + " speedup", 
+                    timings[Rasterizer.SCANLINE.ordinal()], timings[Rasterizer.EDGE_FUNCTION.ordinal()]);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package viewer3D.Benchmarks;
+
+import viewer3D.Math.Mat4;
+import viewer3D.Math.Matrix;
+import viewer3D.Math.Orientation;
+import viewer3D.Math.Vec3;
+import viewer3D.Math.Vector;
+
+/**
+ * Compares the cost of handling one mouse rotation event by rebuilding yaw and 
+ * pitch matrices from angles, against composing the delta onto an Orientation 
+ * and rebuilding the view transform from its basis
+ * @author Arik Dicks
+ */
+public class RotationBenchmark {
+    private static final int EVENTS = 10000;
+
+    public static void main(String[] args) {
+        final double[] deltas = new double[EVENTS];
+        for (int i = 0; i < deltas.length; i++) {
+            deltas[i] = Math.sin(i)*3;
+        }
+        final Vector normalVector = new Vector(new double[]{0, 0, 1});
+        double angleMatrices = Benchmark.time("Matrices from angles (" + EVENTS + " events)", () -> {
+            int theta = 0;
+            int phi = 0;
+            double sum = 0;
+            for (int i = 0; i < EVENTS; i++) {
+                theta = (theta + (int)Math.round(deltas[i]))%360;
+                phi = (phi + (int)Math.round(deltas[EVENTS - 1 - i]))%360;
+                Matrix yawMatrix = Matrix.get3DYRotationMatrix(Math.toRadians(theta));
+                Matrix pitchMatrix = Matrix.get3DXRotationMatrix(Math.toRadians(phi));
+                Vector direction = normalVector.multiply(pitchMatrix).getUnitVector().multiply(yawMatrix).getUnitVector();
+                sum += direction.getComponent(0);
+            }
+            return sum;
+        });
+        
+        final Orientation orientation = new Orientation();
+        final Vec3 right = new Vec3();
+        final Vec3 up = new Vec3();
+        final Vec3 forward = new Vec3();
+        final Vec3 eye = new Vec3(0, 150, -450);
+        final Mat4 viewMatrix = new Mat4();
+        double composedBasis = Benchmark.time("Orientation basis (" + EVENTS + " events)", () -> {
+            for (int i = 0; i < EVENTS; i++) {
+                orientation.rotate(deltas[i], deltas[EVENTS - 1 - i]);
+                viewMatrix.setView(orientation.getRight(right), orientation.getUp(up), orientation.getForward(forward), eye);
+            }
+            return viewMatrix.getElement(0, 0);
+        });
+        Benchmark.printSpeedup("Speedup", angleMatrices, composedBasis);
+    }
+}
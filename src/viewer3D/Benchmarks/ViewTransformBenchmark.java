@@ -0,0 +1,55 @@
+package viewer3D.Benchmarks;
+
+import viewer3D.GraphicsEngine.Polygon;
+import viewer3D.GraphicsEngine.TestWorldSpace;
+import viewer3D.Math.Mat4;
+import viewer3D.Math.Matrix;
+import viewer3D.Math.Vec3;
+import viewer3D.Math.Vector;
+
+/**
+ * Compares the per-frame cost of transforming every vertex of the TestWorldSpace 
+ * into view space by building the yaw matrix per vertex and chaining Vector 
+ * operations, against a single cached view matrix applied with one fused call
+ * @author Arik Dicks
+ */
+public class ViewTransformBenchmark {
+    public static void main(String[] args) {
+        final Polygon[] polygons = new TestWorldSpace().getPolygons();
+        final int theta = 30;
+        final int phi = 15;
+        final Vector cameraPosition = new Vector(new double[]{10, 150, -450});
+        final Matrix pitchMatrix = Matrix.get3DXRotationMatrix(Math.toRadians(phi));
+        System.out.println("Transforming " + polygons.length*3 + " vertices per frame");
+        
+        double perVertexMatrix = Benchmark.time("Per-vertex rotation matrices", () -> {
+            double sum = 0;
+            for (int i = 0; i < polygons.length; i++) {
+                for (int j = 0; j < 3; j++) {
+                    Vector v = polygons[i].getVertex(j).subtract(cameraPosition)
+                            .multiply(Matrix.get3DYRotationMatrix(Math.toRadians(-theta)))
+                            .multiply(pitchMatrix);
+                    sum += v.getComponent(2);
+                }
+            }
+            return sum;
+        });
+        
+        final Mat4 viewMatrix = new Mat4().setView(
+                pitchMatrix.multiply(Matrix.get3DYRotationMatrix(Math.toRadians(-theta))), 
+                new Vec3(cameraPosition));
+        final Vec3 out = new Vec3();
+        double fusedViewMatrix = Benchmark.time("Cached fused view matrix", () -> {
+            double sum = 0;
+            for (int i = 0; i < polygons.length; i++) {
+                for (int j = 0; j < 3; j++) {
+                    Vector v = polygons[i].getVertex(j);
+                    viewMatrix.transformPoint(v.getComponent(0), v.getComponent(1), v.getComponent(2), out);
+                    sum += out.z;
+                }
+            }
+            return sum;
+        });
+        Benchmark.printSpeedup("Speedup", perVertexMatrix, fusedViewMatrix);
+    }
+}
@@ -0,0 +1,52 @@
+package viewer3D.Benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import viewer3D.GraphicsEngine.Camera;
+import viewer3D.GraphicsEngine.Rasterizer;
+import viewer3D.GraphicsEngine.StreetWorldSpace;
+import viewer3D.GraphicsEngine.TestWorldSpace;
+import viewer3D.GraphicsEngine.WorldSpace;
+
+/**
+ * Compares writing colors directly while rasterizing with rendering through a 
+ * visibility buffer, for each rasterizer, from the starting camera position. Every 
+ * frame rendered through the visibility buffer is checked against the direct image
+ * @author Arik Dicks
+ */
+public class VisibilityBufferBenchmark {
+    private static final int WIDTH = 730;
+    private static final int HEIGHT = 730;
+
+    public static void main(String[] args) {
+        WorldSpace[] worlds = {new TestWorldSpace(), new StreetWorldSpace()};
+        String[] names = {"Test", "Street"};
+        for (int i = 0; i < worlds.length; i++) {
+            final Camera camera = new Camera(worlds[i].getMeshBuffer(), WIDTH, HEIGHT, null);
+            camera.setPosition(0, 150, -450);
+            for (Rasterizer rasterizer : Rasterizer.values()) {
+                String name = names[i] + " " + rasterizer;
+                camera.setRasterizer(rasterizer);
+
+                camera.setVisibilityBufferEnabled(false);
+                double baseline = Benchmark.time(name + " direct", 20, 50, () -> {
+                    camera.observe();
+                    return camera.getFragmentCount();
+                });
+                int[] baselineImage = getPixels(camera.observe());
+
+                camera.setVisibilityBufferEnabled(true);
+                double candidate = Benchmark.time(name + " visibility buffer", 20, 50, () -> {
+                    camera.observe();
+                    return camera.getFragmentCount();
+                });
+                boolean isIdentical = Arrays.equals(baselineImage, getPixels(camera.observe()));
+                Benchmark.printSpeedup(name + " speedup" + (isIdentical? "" : " (IMAGE MISMATCH)"), baseline, candidate);
+            }
+        }
+    }
+    private static int[] getPixels(BufferedImage image) {
+        return ((DataBufferInt)image.getRaster().getDataBuffer()).getData().clone();
+    }
+}
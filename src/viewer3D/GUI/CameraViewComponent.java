@@ -8,12 +8,14 @@ import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.RenderingHints;
 import java.awt.Robot;
+import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseMotionListener;
 import java.awt.image.BufferedImage;
 import javax.swing.JComponent;
 import javax.swing.border.LineBorder;
 import viewer3D.GraphicsEngine.Camera;
+import viewer3D.GraphicsEngine.Polygon;
 
 /**
  * A Component that is responsible for drawing a set of screen-space polygons given by a camera object
@@ -27,6 +29,7 @@ public class CameraViewComponent extends JComponent {
     private boolean wasUpdated;
     private Robot cursorSetter;
     private BufferedImage image;
+    private Polygon pickedPolygon;
     /**
      * Constructs a CameraViewComponent with a given width and height, and a set of screen-space polygons 
      * @param camera
@@ -44,6 +47,7 @@ public class CameraViewComponent extends JComponent {
         } catch (AWTException ex) {}
         cursorSetter.mouseMove(300, 300);
         super.addMouseMotionListener(new CursorPositionListener());
+        super.addMouseListener(new PickListener());
     }
     
     /**
@@ -110,10 +114,10 @@ public class CameraViewComponent extends JComponent {
             int deltaY = Math.abs(e.getY()-getCenterY());
             double xRatio = deltaX/(double)getComponentWidth();
             double yRatio = deltaY/(double)getComponentHeight();
-            int xAngle = (int)Math.round((xRatio*mouseSensitivity)*45);
-            int yAngle = (int)Math.round((yRatio*mouseSensitivity)*45);
-            int deltaTheta = 0;
-            int deltaPhi = 0;
+            double xAngle = (xRatio*mouseSensitivity)*45;
+            double yAngle = (yRatio*mouseSensitivity)*45;
+            double deltaTheta = 0;
+            double deltaPhi = 0;
             
             if (e.getX() < getCenterX()) {
                 deltaTheta = -xAngle;
@@ -135,4 +139,26 @@ public class CameraViewComponent extends JComponent {
             }
         }
     }
+
+    /**
+     * Selects the polygon under the cursor when the mouse is pressed, and deselects the
+     * polygon selected before it
+     */
+    private class PickListener extends MouseAdapter {
+
+        @Override
+        public void mousePressed(MouseEvent e) {
+            Polygon polygon = camera.getPolygonAt(e.getX(), e.getY());
+            if (pickedPolygon != null) {
+                pickedPolygon.deselect();
+            }
+            if (polygon != null && polygon != pickedPolygon) {
+                polygon.select();
+                pickedPolygon = polygon;
+            } else {
+                pickedPolygon = null;
+            }
+            wasUpdated = true;
+        }
+    }
 }
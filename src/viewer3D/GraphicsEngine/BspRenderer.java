@@ -0,0 +1,221 @@
+package viewer3D.GraphicsEngine;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+import viewer3D.Math.Frustum;
+import viewer3D.Math.Mat4;
+import viewer3D.Math.Vec3;
+
+/**
+ * Draws the triangles of a BSP tree front to back into a span buffer, without a depth
+ * buffer. The tree is walked iteratively, visiting the subtree on the side of the
+ * camera, then the triangles of the node, each drawn only if the camera is in front of
+ * its own plane, then the other subtree; subtrees whose bounds lie outside the frustum are
+ * skipped, and the walk stops as soon as every pixel is covered. Vertices are only
+ * transformed to view space the first time a drawn triangle uses them in a frame.
+ * Triangles are clipped to the near and far planes and, past the guard band, to the
+ * screen, as they are for the edge function rasterizer
+ * @author Arik Dicks
+ */
+class BspRenderer {
+    private final BspTree tree;
+    private final SpanBuffer spanBuffer;
+    private final TriangleClipper triangleClipper;
+
+    // The view space position, screenspace position and clip code of each vertex of
+    // the tree, valid if it was transformed in the current frame
+    private final double[] viewX;
+    private final double[] viewY;
+    private final double[] viewZ;
+    private final double[] screenX;
+    private final double[] screenY;
+    private final byte[] clipCodes;
+    private final int[] vertexFrames;
+    private int frameNumber;
+    private int[] stack;
+    private int width;
+    private int height;
+    private double near;
+    private double far;
+    private double[] m;
+    private Vec3 cameraPosition;
+    private IntUnaryOperator pixelValues;
+
+    /**
+     * Constructs a renderer drawing the given tree
+     * @param tree A BSP tree
+     */
+    BspRenderer(BspTree tree) {
+        this.tree = tree;
+        spanBuffer = new SpanBuffer();
+        triangleClipper = new TriangleClipper();
+        viewX = new double[tree.vertexCount];
+        viewY = new double[tree.vertexCount];
+        viewZ = new double[tree.vertexCount];
+        screenX = new double[tree.vertexCount];
+        screenY = new double[tree.vertexCount];
+        clipCodes = new byte[tree.vertexCount];
+        vertexFrames = new int[tree.vertexCount];
+        stack = new int[64];
+    }
+
+    /**
+     * Draws the tree as seen by a camera into the given frame buffer, writing every
+     * pixel exactly once: the pixels of the nearest triangle facing the camera, or the
+     * background value where there is none
+     * @param viewMatrix The world to view transform of the camera
+     * @param cameraPosition The world space position of the camera
+     * @param frustum The view frustum of the camera, in world space
+     * @param near The view space depth of the near plane
+     * @param far The view space depth of the far plane, which may be infinite
+     * @param width The width of the frame buffer
+     * @param height The height of the frame buffer
+     * @param frameBuffer The values of the pixels in rows from the top of the image
+     * @param pixelValues The value written to the pixels of each mesh triangle
+     * @param background The value written to pixels no triangle covers
+     * @return the number of pixels written by triangles
+     */
+    long render(Mat4 viewMatrix, Vec3 cameraPosition, Frustum frustum, double near, double far,
+            int width, int height, int[] frameBuffer, IntUnaryOperator pixelValues, int background) {
+        this.width = width;
+        this.height = height;
+        this.near = near;
+        this.far = far;
+        this.pixelValues = pixelValues;
+        this.cameraPosition = cameraPosition;
+        m = viewMatrix.getElements();
+        if (++frameNumber == 0) {
+            Arrays.fill(vertexFrames, 0);
+            frameNumber = 1;
+        }
+        spanBuffer.reset(width, height, frameBuffer);
+
+        // Entries of the stack are nodes to visit, or the complements of nodes whose
+        // triangles are to be drawn
+        int stackSize = 0;
+        if (tree.getRoot() >= 0) {
+            stack[stackSize++] = tree.getRoot();
+        }
+        while (stackSize > 0 && !spanBuffer.isFull()) {
+            int entry = stack[--stackSize];
+            if (entry < 0) {
+                drawNode(~entry);
+                continue;
+            }
+            if (!frustum.intersects(tree.nodeBounds[entry])) {
+                continue;
+            }
+            boolean isInFront = tree.getDistance(tree.nodePlanes[entry],
+                    cameraPosition.x, cameraPosition.y, cameraPosition.z) > 0;
+            int nearChild = isInFront? tree.nodeFronts[entry] : tree.nodeBacks[entry];
+            int farChild = isInFront? tree.nodeBacks[entry] : tree.nodeFronts[entry];
+            if (stackSize + 3 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length*2);
+            }
+            if (farChild >= 0) {
+                stack[stackSize++] = farChild;
+            }
+            stack[stackSize++] = ~entry;
+            if (nearChild >= 0) {
+                stack[stackSize++] = nearChild;
+            }
+        }
+        long writtenFragmentCount = spanBuffer.getWrittenFragmentCount();
+        spanBuffer.fillUncovered(background);
+        return writtenFragmentCount;
+    }
+
+    /**
+     * Draws the triangles lying in the plane of the given node that face the camera. 
+     * Triangles lying in the plane of the node may face either way, so each is tested
+     * against the plane of its own mesh triangle, as in the back-face test of the 
+     * geometry stage
+     */
+    private void drawNode(int node) {
+        for (int i = tree.nodeTriangleStarts[node]; i < tree.nodeTriangleEnds[node]; i++) {
+            int t = tree.nodeTriangles[i];
+            if (tree.getDistance(tree.sources[t], cameraPosition.x, cameraPosition.y, cameraPosition.z) > 0) {
+                drawTriangle(t);
+            }
+        }
+    }
+
+    /**
+     * Draws the given triangle of the tree, first clipping it in view space against the
+     * near and far planes if it straddles them
+     */
+    private void drawTriangle(int t) {
+        int i1 = transform(tree.indices[t*3]);
+        int i2 = transform(tree.indices[t*3 + 1]);
+        int i3 = transform(tree.indices[t*3 + 2]);
+        if ((clipCodes[i1] & clipCodes[i2] & clipCodes[i3]) != 0) {
+            return;
+        }
+        int value = pixelValues.applyAsInt(tree.sources[t]);
+        int clipCode = clipCodes[i1] | clipCodes[i2] | clipCodes[i3];
+        if (clipCode == 0) {
+            drawScreenTriangle(screenX[i1], screenY[i1], screenX[i2], screenY[i2], screenX[i3], screenY[i3], value);
+            return;
+        }
+        int vertexCount = triangleClipper.clip(
+                viewX[i1], viewY[i1], viewZ[i1],
+                viewX[i2], viewY[i2], viewZ[i2],
+                viewX[i3], viewY[i3], viewZ[i3], clipCode, near, far);
+        double[] x = triangleClipper.x, y = triangleClipper.y, z = triangleClipper.z;
+        for (int i = 1; i < vertexCount - 1; i++) {
+            drawScreenTriangle(
+                    toScreenX(x[0]/z[0]), toScreenY(y[0]/z[0]),
+                    toScreenX(x[i]/z[i]), toScreenY(y[i]/z[i]),
+                    toScreenX(x[i + 1]/z[i + 1]), toScreenY(y[i + 1]/z[i + 1]), value);
+        }
+    }
+
+    /**
+     * Draws the triangle with the given screenspace vertices into the span buffer,
+     * clipping it to the screen first if it reaches past the guard band
+     */
+    private void drawScreenTriangle(double x1, double y1, double x2, double y2, double x3, double y3, int value) {
+        if (Camera.isInGuardBand(x1, y1) && Camera.isInGuardBand(x2, y2) && Camera.isInGuardBand(x3, y3)) {
+            spanBuffer.fillTriangle(x1, y1, x2, y2, x3, y3, value);
+            return;
+        }
+        double[] x = triangleClipper.screenX, y = triangleClipper.screenY;
+        x[0] = x1; y[0] = y1;
+        x[1] = x2; y[1] = y2;
+        x[2] = x3; y[2] = y3;
+        triangleClipper.screenVertexCount = 3;
+        int vertexCount = triangleClipper.clipToScreen(0, 0, width - 1, height - 1);
+        for (int i = 1; i < vertexCount - 1; i++) {
+            spanBuffer.fillTriangle(x[0], y[0], x[i], y[i], x[i + 1], y[i + 1], value);
+        }
+    }
+
+    /**
+     * Transforms the given vertex to view space and projects it, unless it already was
+     * in this frame
+     * @return the vertex
+     */
+    private int transform(int v) {
+        if (vertexFrames[v] == frameNumber) {
+            return v;
+        }
+        double x = tree.x[v], y = tree.y[v], z = tree.z[v];
+        double vx = m[0]*x + m[1]*y + m[2]*z + m[3];
+        double vy = m[4]*x + m[5]*y + m[6]*z + m[7];
+        double vz = m[8]*x + m[9]*y + m[10]*z + m[11];
+        viewX[v] = vx;
+        viewY[v] = vy;
+        viewZ[v] = vz;
+        clipCodes[v] = (byte)TriangleClipper.getClipCode(vz, near, far);
+        screenX[v] = toScreenX(vx/vz);
+        screenY[v] = toScreenY(vy/vz);
+        vertexFrames[v] = frameNumber;
+        return v;
+    }
+    private double toScreenX(double projectedX) {
+        return ((projectedX+1)/2)*width;
+    }
+    private double toScreenY(double projectedY) {
+        return ((projectedY+1)/2)*height;
+    }
+}
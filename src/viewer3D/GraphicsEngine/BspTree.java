@@ -0,0 +1,366 @@
+package viewer3D.GraphicsEngine;
+
+import java.util.Arrays;
+import viewer3D.Math.BoundingVolume;
+import viewer3D.Math.Vec3;
+
+/**
+ * A binary space partitioning tree over the triangles of a mesh buffer, built once for
+ * a static scene. Every node splits space by the plane of one of its triangles, and
+ * holds the triangles lying in that plane; triangles in front of the plane go to the
+ * front subtree, those behind it to the back subtree, and those straddling it are split
+ * in two along the plane. Visiting the subtree on the side of the camera first, then
+ * the node, then the other subtree lists the triangles front to back from any camera
+ * position. Every node is bounded by the volume of its whole subtree, so subtrees out
+ * of view can be skipped. The triangles of a node may face either way, so each is
+ * drawn only if the camera is in front of its own plane. Degenerate triangles, which
+ * have no plane and cover no pixels, are left out of the tree. Vertices, triangles and
+ * nodes are stored as structures of arrays; the pieces of a split triangle keep the
+ * index of the mesh triangle they came from, and with it its plane and polygon
+ * @author Arik Dicks
+ */
+class BspTree {
+    // Vertices closer to a plane than this are taken to lie in it
+    private static final double PLANE_EPSILON = 1e-6;
+    // Splitting planes are chosen among this many evenly spaced candidate triangles
+    private static final int SPLITTER_CANDIDATES = 16;
+    // The cost of a split, relative to one triangle of imbalance between the subtrees
+    private static final int SPLIT_COST = 8;
+    // The side of a plane a triangle straddling it is classified as
+    private static final int SPANNING = Integer.MIN_VALUE;
+    private final MeshBuffer mesh;
+
+    // Vertices, triangles as three vertex indices and the mesh triangle they came from,
+    // and nodes as the mesh triangle of their plane, their subtrees (or -1), and the
+    // range of their triangles in the node order
+    double[] x, y, z;
+    int vertexCount;
+    int[] indices;
+    int[] sources;
+    int triangleCount;
+    int[] nodePlanes;
+    int[] nodeFronts;
+    int[] nodeBacks;
+    int[] nodeTriangleStarts;
+    int[] nodeTriangleEnds;
+    int nodeCount;
+    // The triangles of each node, contiguous in node order
+    int[] nodeTriangles;
+    // The bounds of the triangles of each node and of its subtrees
+    BoundingVolume[] nodeBounds;
+    private int nodeTriangleCount;
+
+    /**
+     * Builds the tree of the triangles of the given mesh buffer that have a plane, as 
+     * its vertices are now, sharing its vertices and adding a vertex for every split edge
+     * @param mesh A mesh buffer
+     */
+    BspTree(MeshBuffer mesh) {
+        this.mesh = mesh;
+        int capacity = Math.max(mesh.triangleCount, 1);
+        vertexCount = mesh.vertexCount;
+        x = Arrays.copyOf(mesh.x, Math.max(vertexCount, 1));
+        y = Arrays.copyOf(mesh.y, Math.max(vertexCount, 1));
+        z = Arrays.copyOf(mesh.z, Math.max(vertexCount, 1));
+        triangleCount = mesh.triangleCount;
+        indices = Arrays.copyOf(mesh.indices, capacity*3);
+        sources = new int[capacity];
+        for (int i = 0; i < triangleCount; i++) {
+            sources[i] = i;
+        }
+        nodePlanes = new int[capacity];
+        nodeFronts = new int[capacity];
+        nodeBacks = new int[capacity];
+        nodeTriangleStarts = new int[capacity];
+        nodeTriangleEnds = new int[capacity];
+        int[] triangles = new int[triangleCount];
+        int usedCount = 0;
+        for (int i = 0; i < triangleCount; i++) {
+            if (hasPlane(i)) {
+                triangles[usedCount++] = i;
+            }
+        }
+        build(Arrays.copyOf(triangles, usedCount));
+        nodeBounds = new BoundingVolume[nodeCount];
+        computeBounds();
+    }
+
+    /**
+     * Returns the root node of the tree, or -1 if it is empty
+     * @return the root node of the tree
+     */
+    int getRoot() {
+        return (nodeCount == 0)? -1 : 0;
+    }
+
+    /**
+     * Returns the signed distance of the given point from the plane of the given mesh
+     * triangle, positive in front of it
+     */
+    double getDistance(int source, double px, double py, double pz) {
+        return mesh.normalX[source]*px + mesh.normalY[source]*py + mesh.normalZ[source]*pz - mesh.planeD[source];
+    }
+
+    /**
+     * Returns true if the given mesh triangle has a plane: a zero area triangle, such as
+     * one with collinear vertices, has a zero or NaN normal, and every point would be
+     * classified as lying in its plane
+     */
+    private boolean hasPlane(int source) {
+        double lengthSquared = mesh.normalX[source]*mesh.normalX[source] 
+                + mesh.normalY[source]*mesh.normalY[source] + mesh.normalZ[source]*mesh.normalZ[source];
+        return lengthSquared > 0 && Double.isFinite(lengthSquared) && Double.isFinite(mesh.planeD[source]);
+    }
+
+    /**
+     * Builds the subtree of the given triangles, with an explicit stack of the lists
+     * still to be built and the node links waiting for them, so that unbalanced trees
+     * cannot overflow the call stack
+     */
+    private void build(int[] rootTriangles) {
+        if (rootTriangles.length == 0) {
+            nodeTriangles = new int[0];
+            return;
+        }
+        nodeTriangles = new int[Math.max(triangleCount, 16)];
+        int[][] pendingLists = new int[16][];
+        int[] pendingParents = new int[16];
+        boolean[] pendingIsFront = new boolean[16];
+        int pendingCount = 0;
+        pendingLists[pendingCount] = rootTriangles;
+        pendingParents[pendingCount++] = -1;
+        int[] front = new int[16], back = new int[16];
+        while (pendingCount > 0) {
+            pendingCount--;
+            int[] triangles = pendingLists[pendingCount];
+            int parent = pendingParents[pendingCount];
+            boolean isFront = pendingIsFront[pendingCount];
+            pendingLists[pendingCount] = null;
+            int node = addNode(triangles[chooseSplitter(triangles)]);
+            if (parent >= 0) {
+                if (isFront) {
+                    nodeFronts[parent] = node;
+                } else {
+                    nodeBacks[parent] = node;
+                }
+            }
+
+            // Partition the triangles into those in the plane of the node, in front of
+            // it and behind it, splitting the triangles straddling it
+            int plane = nodePlanes[node];
+            int frontCount = 0, backCount = 0;
+            nodeTriangleStarts[node] = nodeTriangleCount;
+            for (int t : triangles) {
+                int side = classify(t, plane);
+                if (side == 0) {
+                    nodeTriangles = grow(nodeTriangles, nodeTriangleCount + 1);
+                    nodeTriangles[nodeTriangleCount++] = t;
+                } else if (side > 0) {
+                    front = grow(front, frontCount + 1);
+                    front[frontCount++] = t;
+                } else if (side != SPANNING) {
+                    back = grow(back, backCount + 1);
+                    back[backCount++] = t;
+                } else {
+                    int firstPiece = triangleCount;
+                    int frontPieces = split(t, plane);
+                    for (int piece = firstPiece; piece < triangleCount; piece++) {
+                        if (piece - firstPiece < frontPieces) {
+                            front = grow(front, frontCount + 1);
+                            front[frontCount++] = piece;
+                        } else {
+                            back = grow(back, backCount + 1);
+                            back[backCount++] = piece;
+                        }
+                    }
+                }
+            }
+            nodeTriangleEnds[node] = nodeTriangleCount;
+            pendingLists = grow(pendingLists, pendingCount + 2);
+            pendingParents = grow(pendingParents, pendingCount + 2);
+            pendingIsFront = grow(pendingIsFront, pendingCount + 2);
+            if (backCount > 0) {
+                pendingLists[pendingCount] = Arrays.copyOf(back, backCount);
+                pendingParents[pendingCount] = node;
+                pendingIsFront[pendingCount++] = false;
+            }
+            if (frontCount > 0) {
+                pendingLists[pendingCount] = Arrays.copyOf(front, frontCount);
+                pendingParents[pendingCount] = node;
+                pendingIsFront[pendingCount++] = true;
+            }
+        }
+    }
+
+    /**
+     * Bounds every node by the vertices of its own triangles and the corners of the
+     * boxes of its subtrees. Subtrees are always added after their parent, so walking
+     * the nodes backwards bounds both subtrees of a node before the node itself
+     */
+    private void computeBounds() {
+        double[] boundsX = new double[16], boundsY = new double[16], boundsZ = new double[16];
+        for (int node = nodeCount - 1; node >= 0; node--) {
+            int count = 0;
+            int pointCount = (nodeTriangleEnds[node] - nodeTriangleStarts[node])*3 + 16;
+            if (pointCount > boundsX.length) {
+                boundsX = new double[pointCount];
+                boundsY = new double[pointCount];
+                boundsZ = new double[pointCount];
+            }
+            for (int i = nodeTriangleStarts[node]; i < nodeTriangleEnds[node]; i++) {
+                for (int k = 0; k < 3; k++) {
+                    int v = indices[nodeTriangles[i]*3 + k];
+                    boundsX[count] = x[v];
+                    boundsY[count] = y[v];
+                    boundsZ[count++] = z[v];
+                }
+            }
+            for (int child : new int[]{nodeFronts[node], nodeBacks[node]}) {
+                if (child < 0 || nodeBounds[child].isEmpty()) {
+                    continue;
+                }
+                Vec3 min = nodeBounds[child].getMin(), max = nodeBounds[child].getMax();
+                for (int corner = 0; corner < 8; corner++) {
+                    boundsX[count] = ((corner & 1) == 0)? min.x : max.x;
+                    boundsY[count] = ((corner & 2) == 0)? min.y : max.y;
+                    boundsZ[count++] = ((corner & 4) == 0)? min.z : max.z;
+                }
+            }
+            nodeBounds[node] = new BoundingVolume().set(boundsX, boundsY, boundsZ, 0, count);
+        }
+    }
+
+    /**
+     * Returns 0 if the given triangle lies in the plane of the given mesh triangle, 1 if
+     * it lies in front of it, -1 if behind it, and SPANNING if it straddles it
+     */
+    private int classify(int t, int plane) {
+        boolean isFront = false, isBack = false;
+        for (int k = 0; k < 3; k++) {
+            int v = indices[t*3 + k];
+            double distance = getDistance(plane, x[v], y[v], z[v]);
+            isFront |= distance > PLANE_EPSILON;
+            isBack |= distance < -PLANE_EPSILON;
+        }
+        if (isFront && isBack) {
+            return SPANNING;
+        }
+        return isFront? 1 : (isBack? -1 : 0);
+    }
+
+    /**
+     * Returns the index in the given list of the triangle whose plane splits the fewest
+     * of the others, and divides them most evenly, among a few evenly spaced candidates
+     */
+    private int chooseSplitter(int[] triangles) {
+        int step = Math.max(triangles.length/SPLITTER_CANDIDATES, 1);
+        int best = 0;
+        long bestCost = Long.MAX_VALUE;
+        for (int candidate = 0; candidate < triangles.length; candidate += step) {
+            int plane = sources[triangles[candidate]];
+            long splits = 0, frontCount = 0, backCount = 0;
+            for (int t : triangles) {
+                int side = classify(t, plane);
+                if (side == SPANNING) {
+                    splits++;
+                } else if (side > 0) {
+                    frontCount++;
+                } else if (side < 0) {
+                    backCount++;
+                }
+            }
+            long cost = splits*SPLIT_COST + Math.abs(frontCount - backCount);
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Splits the given triangle along the plane of the given mesh triangle, adding the
+     * pieces in front of it, then the pieces behind it, as new triangles with the same
+     * winding and source
+     * @return the number of pieces in front of the plane
+     */
+    private int split(int t, int plane) {
+        int[] frontPolygon = new int[4], backPolygon = new int[4];
+        int frontCount = 0, backCount = 0;
+        for (int k = 0; k < 3; k++) {
+            int a = indices[t*3 + k];
+            int b = indices[t*3 + (k + 1)%3];
+            double distanceA = getDistance(plane, x[a], y[a], z[a]);
+            double distanceB = getDistance(plane, x[b], y[b], z[b]);
+            if (distanceA >= -PLANE_EPSILON) {
+                frontPolygon[frontCount++] = a;
+            }
+            if (distanceA <= PLANE_EPSILON) {
+                backPolygon[backCount++] = a;
+            }
+            if ((distanceA > PLANE_EPSILON && distanceB < -PLANE_EPSILON)
+                    || (distanceA < -PLANE_EPSILON && distanceB > PLANE_EPSILON)) {
+                // Interpolated from the lower vertex index, so that the triangles on 
+                // either side of an edge split it at exactly the same point
+                int from = Math.min(a, b), to = Math.max(a, b);
+                double distanceFrom = (from == a)? distanceA : distanceB;
+                double distanceTo = (from == a)? distanceB : distanceA;
+                double s = distanceFrom/(distanceFrom - distanceTo);
+                int v = addVertex(x[from] + (x[to] - x[from])*s, y[from] + (y[to] - y[from])*s, z[from] + (z[to] - z[from])*s);
+                frontPolygon[frontCount++] = v;
+                backPolygon[backCount++] = v;
+            }
+        }
+        int source = sources[t];
+        for (int k = 1; k < frontCount - 1; k++) {
+            addTriangle(frontPolygon[0], frontPolygon[k], frontPolygon[k + 1], source);
+        }
+        for (int k = 1; k < backCount - 1; k++) {
+            addTriangle(backPolygon[0], backPolygon[k], backPolygon[k + 1], source);
+        }
+        return Math.max(frontCount - 2, 0);
+    }
+    private int addVertex(double vx, double vy, double vz) {
+        if (vertexCount == x.length) {
+            x = Arrays.copyOf(x, vertexCount*2);
+            y = Arrays.copyOf(y, vertexCount*2);
+            z = Arrays.copyOf(z, vertexCount*2);
+        }
+        x[vertexCount] = vx;
+        y[vertexCount] = vy;
+        z[vertexCount] = vz;
+        return vertexCount++;
+    }
+    private void addTriangle(int v1, int v2, int v3, int source) {
+        if (triangleCount == sources.length) {
+            indices = Arrays.copyOf(indices, triangleCount*6);
+            sources = Arrays.copyOf(sources, triangleCount*2);
+        }
+        indices[triangleCount*3] = v1;
+        indices[triangleCount*3 + 1] = v2;
+        indices[triangleCount*3 + 2] = v3;
+        sources[triangleCount++] = source;
+    }
+    private int addNode(int splitter) {
+        if (nodeCount == nodePlanes.length) {
+            nodePlanes = Arrays.copyOf(nodePlanes, nodeCount*2);
+            nodeFronts = Arrays.copyOf(nodeFronts, nodeCount*2);
+            nodeBacks = Arrays.copyOf(nodeBacks, nodeCount*2);
+            nodeTriangleStarts = Arrays.copyOf(nodeTriangleStarts, nodeCount*2);
+            nodeTriangleEnds = Arrays.copyOf(nodeTriangleEnds, nodeCount*2);
+        }
+        nodePlanes[nodeCount] = sources[splitter];
+        nodeFronts[nodeCount] = -1;
+        nodeBacks[nodeCount] = -1;
+        return nodeCount++;
+    }
+    private static int[] grow(int[] array, int capacity) {
+        return (capacity <= array.length)? array : Arrays.copyOf(array, Math.max(capacity, array.length*2));
+    }
+    private static int[][] grow(int[][] array, int capacity) {
+        return (capacity <= array.length)? array : Arrays.copyOf(array, Math.max(capacity, array.length*2));
+    }
+    private static boolean[] grow(boolean[] array, int capacity) {
+        return (capacity <= array.length)? array : Arrays.copyOf(array, Math.max(capacity, array.length*2));
+    }
+}
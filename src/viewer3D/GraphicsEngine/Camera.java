@@ -1,14 +1,17 @@
 package viewer3D.GraphicsEngine;
 
-import java.awt.Color;
 import java.awt.GraphicsConfiguration;
 import java.awt.Point;
 import java.awt.image.BufferedImage;
-import java.util.ArrayList;
+import java.awt.image.DataBufferInt;
 import java.util.Arrays;
-import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import viewer3D.Math.Frustum;
+import viewer3D.Math.Mat4;
 import viewer3D.Math.Matrix;
+import viewer3D.Math.Orientation;
 import viewer3D.Math.Plane;
+import viewer3D.Math.Vec3;
 import viewer3D.Math.Vector;
 
 /**
@@ -18,39 +21,93 @@ import viewer3D.Math.Vector;
  */
 public class Camera {
     private Plane projectionPlane;
-    private final Polygon[] polygons;
-    private ProjectedPolygon[] projectedPolygons;
-    private ProjectedPolygon[] translatedPolygons;
-    private Vector[][] projectionPoints;
-    private final Vector projectionPlanePosition;
-    private final Vector originVector;
-    private final Vector normalVector;
-    private final Vector xUnitVector;
-    private final Vector yUnitVector;
-    private final Vector zUnitVector;
-    private final Vector cameraPlaneNormalVector;
-    private Vector cameraPositionVector;
-    private Vector cameraRotationVector;
+    private final MeshBuffer mesh;
+    private final double[] viewX;
+    private final double[] viewY;
+    private final double[] viewZ;
+    private final double[] projectedX;
+    private final double[] projectedY;
+    private final byte[] clipCodes;
+    private final GeometryStage geometry;
+    private final Plane translatedPlane;
+    private final Vec3 translatedVertex1;
+    private final Vec3 translatedVertex2;
+    private final Vec3 translatedVertex3;
+    private final Vec3 projectionPlanePosition;
+    private final Vec3 originVector;
+    private final Vec3 normalVector;
+    private final Vec3 xUnitVector;
+    private final Vec3 yUnitVector;
+    private final Vec3 zUnitVector;
+    private final Vec3 cameraPlaneNormalVector;
+    private final Vec3 cameraPositionVector;
+    private final Vec3 cameraRotationVector;
+    private final Vec3 intersectionVector;
+    private final Vec3 fromCameraVector;
     private Matrix rollMatrix;
-    private Matrix pitchMatrix;
-    private Matrix yawMatrix;
+    private final Orientation orientation;
+    private final Vec3 rightVector;
+    private final Vec3 upVector;
+    private final Mat4 viewMatrix;
+    private boolean isViewMatrixStale;
+    // The volume seen through the camera plane, which spans [-1, 1] in x and y at z = 1
+    private final Frustum frustum;
+    // The view space depths of the near and far planes triangles are clipped to
+    private double nearDistance;
+    private double farDistance;
+    private final TriangleClipper triangleClipper;
     private final int defaultRotationAngle;
     private int pitchAngle;
     private int yawAngle;
     private int rollAngle;
-    private int theta;
-    private int phi;
     private int width;
     private int height;
     private final double EPSILON = Math.pow(10, -14);
     private double translationScalar;    
     private double xFOV;
     private double yFOV;
-    private double[][] zBuffer;
-    private double[] polygonBounds;
+    // The inverse view space depth (1/z) of the nearest fragment at each pixel
+    private DepthBuffer zBuffer;
+    private DepthFormat depthFormat;
+    // The number of images rendered into in turn, so the image returned by the last 
+    // call to observe can still be painted while the next one is rendered
+    private static final int IMAGE_BUFFER_COUNT = 2;
+    private BufferedImage[] images;
+    private int[][] frameBuffers;
+    private int imageIndex;
+    private boolean areBuffersStale;
     private BufferedImage image;
+    // The pixels of image, packed as ARGB ints in rows from the top of the image
+    private int[] frameBuffer;
     private GraphicsConfiguration gc;
-    List<double[]> polygonVertices, clipper, clippedPolygonVertices;
+    private Rasterizer rasterizer;
+    private long fragmentCount;
+    private long culledFragmentCount;
+    private long writtenFragmentCount;
+    private boolean isFrontToBackSortEnabled;
+    private final EdgeFunctionRasterizer edgeRasterizer;
+    // Built from the mesh the first time the BSP engine is selected, and again 
+    // whenever any of its triangles change
+    private BspRenderer bspRenderer;
+    private ForkJoinPool pool;
+    // Triangles reaching further than this many pixels off screen are clipped before
+    // edge function rasterization, which keeps their 28.4 fixed point vertices within
+    // int range, and their edge functions well within long range
+    private static final int GUARD_BAND = 8192;
+    // The left and right bounds of each row of the polygon being scanline rasterized
+    private int[] leftBounds;
+    private int[] rightBounds;
+    // In visibility buffer mode, the index of the mesh triangle drawn at each pixel, or
+    // -1, in rows from the top of the image, and the face colors of the triangles along
+    // with the frame they were last looked up in
+    private boolean isVisibilityBufferEnabled;
+    // Whether the frame being rasterized writes triangle indices rather than colors,
+    // which it does in visibility buffer mode and when rendered for picking
+    private boolean isWritingTriangleIds;
+    private int[] triangleIdBuffer;
+    private final int[] triangleColors;
+    private final int[] triangleColorFrames;
+    private int frameNumber;
     /**
      * Camera is constructed with a speed of 10 and an initial position of {0, 150, -450}
      * @param polygons
@@ -59,24 +116,36 @@ public class Camera {
      * @param gc
      */
     public Camera(Polygon[] polygons, int width, int height, GraphicsConfiguration gc) {
-        this.polygons = polygons;
+        this(new MeshBuffer(polygons), width, height, gc);
+    }
+
+    /**
+     * Camera is constructed with a speed of 10 and an initial position of {0, 150, -450}
+     * @param mesh The triangles observed by this camera
+     * @param width
+     * @param height
+     * @param gc
+     */
+    public Camera(MeshBuffer mesh, int width, int height, GraphicsConfiguration gc) {
+        this.mesh = mesh;
         this.width = width;
         this.height = height;
         this.gc = gc;
+        rasterizer = Rasterizer.SCANLINE;
+        depthFormat = DepthFormat.STAMPED;
+        edgeRasterizer = new EdgeFunctionRasterizer();
+        pool = ForkJoinPool.commonPool();
         
         // Rotation fields
         defaultRotationAngle = 1;
         yawAngle = 0;
         pitchAngle = 0;
         rollAngle = 0;
-        theta = 0;
-        phi = 0;
+        orientation = new Orientation();
         xFOV = Math.PI/4;
         yFOV = Math.PI/4;
         
         rollMatrix = Matrix.get3DZRotationMatrix(Math.toRadians(rollAngle));
-        pitchMatrix = Matrix.get3DXRotationMatrix(Math.toRadians(pitchAngle));
-        yawMatrix = Matrix.get3DYRotationMatrix(Math.toRadians(yawAngle));
          
         // Speed
         translationScalar = 100;
@@ -86,207 +155,388 @@ public class Camera {
         int initialCameraPositionY = 0;
         int initialCameraPositionZ = 0;
         
-        double[] originVectorArray = {initialCameraPositionX, initialCameraPositionY, initialCameraPositionZ};
-        double[] projectionPlanePositionArray = {initialCameraPositionX, initialCameraPositionY, initialCameraPositionZ+1};
-        double[] normalVectorArray = {0, 0, 1};
-        double[] cameraPositionVectorArray = {0, 0, 0};
-        double[] cameraRotationVectorArray = {0, 0, 1};
-        double[] cameraPlaneNormalVectorArray = {0, 1, 0};
-        double[] xUnitVectorArray = {1, 0, 0};
-        double[] yUnitVectorArray = {0, 1, 0};
-        double[] zUnitVectorArray = {0, 0, 1};
+        cameraPositionVector = new Vec3(0, 0, 0);
+        cameraRotationVector = new Vec3(0, 0, 1);
+        cameraPlaneNormalVector = new Vec3(0, 1, 0);
         
-        cameraPositionVector = new Vector(cameraPositionVectorArray);
-        cameraRotationVector = new Vector(cameraRotationVectorArray);
-        cameraPlaneNormalVector = (new Vector(cameraPlaneNormalVectorArray));
+        originVector = new Vec3(initialCameraPositionX, initialCameraPositionY, initialCameraPositionZ);
+        projectionPlanePosition = new Vec3(initialCameraPositionX, initialCameraPositionY, initialCameraPositionZ+1);
+        normalVector = new Vec3(0, 0, 1);
         
-        originVector = new Vector(originVectorArray);
-        projectionPlanePosition = new Vector(projectionPlanePositionArray);
-        normalVector = (new Vector(normalVectorArray));
+        xUnitVector = new Vec3(1, 0, 0);
+        yUnitVector = new Vec3(0, 1, 0);
+        zUnitVector = new Vec3(0, 0, 1);
         
-        xUnitVector = new Vector(xUnitVectorArray);
-        yUnitVector = new Vector(yUnitVectorArray);
-        zUnitVector = new Vector(zUnitVectorArray);
+        rightVector = new Vec3(1, 0, 0);
+        upVector = new Vec3(0, 1, 0);
+        intersectionVector = new Vec3();
+        fromCameraVector = new Vec3();
+        viewMatrix = new Mat4();
+        isViewMatrixStale = true;
+        frustum = new Frustum();
+        nearDistance = 1;
+        farDistance = Double.POSITIVE_INFINITY;
+        triangleClipper = new TriangleClipper();
 
         projectionPlane = new Plane(projectionPlanePosition, normalVector);
         
-        setProjectionPoints();
-        zBuffer = new double[height][width];
+        // Per vertex and per triangle working storage, reused every frame
+        geometry = new GeometryStage(mesh);
+        viewX = geometry.viewX;
+        viewY = geometry.viewY;
+        viewZ = geometry.viewZ;
+        projectedX = geometry.projectedX;
+        clipCodes = geometry.clipCodes;
+        projectedY = geometry.projectedY;
+        translatedPlane = new Plane(originVector, normalVector);
+        translatedVertex1 = new Vec3();
+        translatedVertex2 = new Vec3();
+        translatedVertex3 = new Vec3();
+        triangleColors = new int[mesh.triangleCount];
+        triangleColorFrames = new int[mesh.triangleCount];
         
-        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        createBuffers();
     }
 
     /**
      * Projects the polygons provided at construction into a screenspace coordinate space
-     * usable by drawer classes
+     * usable by drawer classes. The returned image shares its memory with the frame 
+     * buffer the camera renders into
      * @return
      */
-    public BufferedImage observe() {
+    public synchronized BufferedImage observe() {
+        isWritingTriangleIds = isVisibilityBufferEnabled;
         projectPolygons();
-        image = gc.createCompatibleImage(width, height);
-        image.setAccelerationPriority(1);
-        zBuffer = new double[height][width];
+        swapBuffers();
         rasterizePolygons();
         return image;
     }
+    /**
+     * Creates the images rendered into, each backed by an int array the rasterizers 
+     * write packed colors into directly, and the depth buffer
+     */
+    private void createBuffers() {
+        images = new BufferedImage[IMAGE_BUFFER_COUNT];
+        frameBuffers = new int[IMAGE_BUFFER_COUNT][];
+        for (int i = 0; i < IMAGE_BUFFER_COUNT; i++) {
+            images[i] = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            frameBuffers[i] = ((DataBufferInt)images[i].getRaster().getDataBuffer()).getData();
+        }
+        imageIndex = 0;
+        image = images[imageIndex];
+        frameBuffer = frameBuffers[imageIndex];
+        zBuffer = DepthBuffer.create(depthFormat, width, height, nearDistance);
+        triangleIdBuffer = new int[width*height];
+        Arrays.fill(triangleIdBuffer, -1);
+        leftBounds = new int[height];
+        rightBounds = new int[height];
+        areBuffersStale = false;
+    }
+    /**
+     * Moves on to the next image to render into and clears it and the depth buffer,
+     * first recreating the buffers if the size of the camera has changed. In visibility 
+     * buffer mode the triangle ID buffer is cleared instead of the image, every pixel
+     * of which is written when the ID buffer is resolved. The BSP engine writes every
+     * pixel of the buffer it draws into, and uses no depth buffer, so nothing is cleared
+     */
+    private void swapBuffers() {
+        if (areBuffersStale) {
+            createBuffers();
+        } else {
+            imageIndex = (imageIndex + 1)%IMAGE_BUFFER_COUNT;
+            image = images[imageIndex];
+            frameBuffer = frameBuffers[imageIndex];
+        }
+        if (rasterizer == Rasterizer.BSP) {
+            return;
+        }
+        if (isVisibilityBufferEnabled) {
+            Arrays.fill(triangleIdBuffer, -1);
+        } else {
+            Arrays.fill(frameBuffer, 0);
+        }
+        zBuffer.clear();
+    }
+    /**
+     * Rebuilds the world to view transform if the camera has moved or rotated since
+     * it was last built
+     */
+    private void updateViewMatrix() {
+        if (isViewMatrixStale) {
+            viewMatrix.setView(rightVector, upVector, cameraRotationVector, cameraPositionVector);
+            frustum.setView(viewMatrix, 1, 1, nearDistance, farDistance);
+            isViewMatrixStale = false;
+        }
+    }
     private void projectPolygons() {
-        // Project polygons onto camera plane
-        translatedPolygons = new ProjectedPolygon[polygons.length];
-        projectedPolygons = new ProjectedPolygon[polygons.length];
-        for (int i = 0; i < polygons.length; i++) {
-            Vector[] vertices = {polygons[i].getVertex(0), polygons[i].getVertex(1), polygons[i].getVertex(2)};
-            Vector[] translatedVertices = new Vector[vertices.length];
-            Vector[] projectedVertices = new Vector[vertices.length];
-            for (int j = 0; j < translatedVertices.length; j++) {
-                // rotate and translate the point before getting its intersection
-                Vector fromCameraVector =  vertices[j].subtract(cameraPositionVector);
-                Vector newPosition = (fromCameraVector)
-                        .multiply(Matrix.get3DYRotationMatrix(Math.toRadians(-theta)))
-                        .multiply(pitchMatrix);
-                translatedVertices[j] = newPosition;
-            }
-            translatedPolygons[i] = new ProjectedPolygon(translatedVertices, polygons[i]);
-            double dotProduct = (translatedPolygons[i].getOriginalPolygon().getNormal())
-                    .dot(translatedPolygons[i].getOriginalPolygon().getVertex(0).subtract(cameraPositionVector));
-            if (dotProduct < 0) {
-                for (int j = 0; j < translatedVertices.length; j++) {
-                    projectedVertices[j] = projectionPlane.getIntersectingVector(translatedVertices[j]);
-                }
-                projectedPolygons[i] = new ProjectedPolygon(projectedVertices, polygons[i]);
+        updateViewMatrix();
+        if (mesh.sync()) {
+            bspRenderer = null;
+        }
+        if (rasterizer == Rasterizer.BSP) {
+            // The tree is walked in view order while drawing, in place of the geometry stage
+            if (bspRenderer == null) {
+                bspRenderer = new BspRenderer(new BspTree(mesh));
             }
+            return;
+        }
+        
+        // Frustum cull objects, then transform, project and back-face test in parallel chunks
+        geometry.run(viewMatrix, cameraPositionVector, frustum, nearDistance, farDistance, pool);
+        if (isFrontToBackSortEnabled) {
+            geometry.sortFrontToBack();
         }
     }
     private void rasterizePolygons() {
-        //double[][] clipPoints = {{100, 100}, {300, 100}, {300, 300}, {100, 300}};
-        double[][] clipPoints = {{0, 0}, {width-1, 0}, {width-1, height-1}, {0, height-1}};
-        clipper = new ArrayList<>(Arrays.asList(clipPoints));
-        for (int i = 0; i < translatedPolygons.length; i++) {
-            if (projectedPolygons[i] != null) {
-                //rasterizePolygon(projectedPolygons[i], translatedPolygons[i]);
-                //rasterizePolygon(projectedPolygons[i], translatedPolygons[i], 0);
-                //rasterizePolygon(projectedPolygons[i], translatedPolygons[i], 0, 0);
-                rasterizePolygon(projectedPolygons[i], translatedPolygons[i], 0, 0, 0);
+        fragmentCount = 0;
+        culledFragmentCount = 0;
+        writtenFragmentCount = 0;
+        if (rasterizer == Rasterizer.BSP) {
+            writtenFragmentCount = bspRenderer.render(viewMatrix, cameraPositionVector, frustum, nearDistance, farDistance, 
+                    width, height, isWritingTriangleIds? triangleIdBuffer : frameBuffer, this::getPixelValue, 
+                    isWritingTriangleIds? -1 : 0);
+            fragmentCount = writtenFragmentCount;
+            if (isVisibilityBufferEnabled) {
+                resolveVisibilityBuffer();
             }
+            return;
+        }
+        boolean isEdgeFunction = rasterizer == Rasterizer.EDGE_FUNCTION || rasterizer == Rasterizer.TILED;
+        if (isEdgeFunction) {
+            edgeRasterizer.reset(width, height, isWritingTriangleIds? triangleIdBuffer : frameBuffer, zBuffer);
+        }
+        for (int i = 0; i < geometry.visibleTriangleCount; i++) {
+            int triangleIndex = geometry.visibleTriangles[i];
+            //rasterizePolygon(projectedPolygons[i], translatedPolygons[i]);
+            //rasterizePolygon(projectedPolygons[i], translatedPolygons[i], 0);
+            //rasterizePolygon(projectedPolygons[i], translatedPolygons[i], 0, 0);
+            if (isEdgeFunction) {
+                rasterizeTriangle(triangleIndex);
+            } else {
+                rasterizePolygon(triangleIndex, 0, 0, 0);
+            }
+        }
+        if (rasterizer == Rasterizer.EDGE_FUNCTION) {
+            fragmentCount = edgeRasterizer.fill();
+        } else if (rasterizer == Rasterizer.TILED) {
+            fragmentCount = edgeRasterizer.fillTiled(pool);
+        }
+        if (isEdgeFunction) {
+            culledFragmentCount = edgeRasterizer.getCulledFragmentCount();
+            writtenFragmentCount = edgeRasterizer.getWrittenFragmentCount();
+        }
+        if (isVisibilityBufferEnabled) {
+            resolveVisibilityBuffer();
         }
     }
+
+    /**
+     * Writes the face color of the triangle drawn at every pixel into the image. The 
+     * face color of a triangle is looked up once per frame, at the first of its pixels,
+     * so triangles that were drawn over entirely are never shaded
+     */
+    private void resolveVisibilityBuffer() {
+        frameNumber++;
+        for (int i = 0; i < triangleIdBuffer.length; i++) {
+            int triangleIndex = triangleIdBuffer[i];
+            if (triangleIndex < 0) {
+                frameBuffer[i] = 0;
+                continue;
+            }
+            if (triangleColorFrames[triangleIndex] != frameNumber) {
+                triangleColors[triangleIndex] = mesh.polygons[triangleIndex].getFaceColor().getRGB();
+                triangleColorFrames[triangleIndex] = frameNumber;
+            }
+            frameBuffer[i] = triangleColors[triangleIndex];
+        }
+    }
+
+    /**
+     * Returns the value the given triangle writes to its pixels: its face color, or
+     * its index when triangle IDs are being rendered
+     */
+    private int getPixelValue(int triangleIndex) {
+        return isWritingTriangleIds? triangleIndex : mesh.polygons[triangleIndex].getFaceColor().getRGB();
+    }
 //------------------------------------------------------------------------------
-    private void rasterizePolygon(ProjectedPolygon polygon, ProjectedPolygon translatedPolygon, int d1, int d2, int d3) {
-        // Vertices converted from normalspace to screenspace
-        Vector[] vertices = polygon.getVertices();
-        double v1X_D = ((vertices[0].getComponent(0)+1)/2)*width;
-        double v1Y_D = ((vertices[0].getComponent(1)+1)/2)*height;
-        double v2X_D = ((vertices[1].getComponent(0)+1)/2)*width;
-        double v2Y_D = ((vertices[1].getComponent(1)+1)/2)*height;
-        double v3X_D = ((vertices[2].getComponent(0)+1)/2)*width;
-        double v3Y_D = ((vertices[2].getComponent(1)+1)/2)*height;
-        polygonVertices = new ArrayList<>(Arrays.asList(new double[][]{
-                    {v1X_D, v1Y_D},
-                    {v2X_D, v2Y_D},
-                    {v3X_D, v3Y_D}
-                }));
-        clippedPolygonVertices  = new ArrayList<>(polygonVertices);
-        clipPolygon();
+    /**
+     * Adds the given triangle to the setup list of the edge function rasterizer. A 
+     * triangle straddling the near or far plane is first clipped against it in view 
+     * space, before the perspective divide, and the clipped polygon added as a fan
+     * @param triangleIndex The index of a triangle in the mesh
+     */
+    private void rasterizeTriangle(int triangleIndex) {
+        int i1 = mesh.indices[triangleIndex*3];
+        int i2 = mesh.indices[triangleIndex*3 + 1];
+        int i3 = mesh.indices[triangleIndex*3 + 2];
+        int color = getPixelValue(triangleIndex);
+        int clipCode = clipCodes[i1] | clipCodes[i2] | clipCodes[i3];
+        if (clipCode == 0) {
+            rasterizeScreenTriangle(
+                    toScreenX(projectedX[i1]), toScreenY(projectedY[i1]), 1/viewZ[i1],
+                    toScreenX(projectedX[i2]), toScreenY(projectedY[i2]), 1/viewZ[i2],
+                    toScreenX(projectedX[i3]), toScreenY(projectedY[i3]), 1/viewZ[i3], color);
+            return;
+        }
+        int vertexCount = triangleClipper.clip(
+                viewX[i1], viewY[i1], viewZ[i1], 
+                viewX[i2], viewY[i2], viewZ[i2], 
+                viewX[i3], viewY[i3], viewZ[i3], clipCode, nearDistance, farDistance);
+        double[] x = triangleClipper.x, y = triangleClipper.y, z = triangleClipper.z;
+        for (int i = 1; i < vertexCount - 1; i++) {
+            rasterizeScreenTriangle(
+                    toScreenX(x[0]/z[0]), toScreenY(y[0]/z[0]), 1/z[0],
+                    toScreenX(x[i]/z[i]), toScreenY(y[i]/z[i]), 1/z[i],
+                    toScreenX(x[i + 1]/z[i + 1]), toScreenY(y[i + 1]/z[i + 1]), 1/z[i + 1], color);
+        }
+    }
+
+    /**
+     * Adds the triangle with the given screenspace vertices and inverse view space 
+     * depths (1/z, which interpolates linearly in screen space) to the setup list of
+     * the edge function rasterizer. Triangles reaching past the guard band are first 
+     * clipped to the screen and added as a fan
+     */
+    private void rasterizeScreenTriangle(double x1, double y1, double z1, double x2, double y2, double z2, 
+            double x3, double y3, double z3, int color) {
+        if (isInGuardBand(x1, y1) && isInGuardBand(x2, y2) && isInGuardBand(x3, y3)) {
+            edgeRasterizer.addTriangle(x1, y1, z1, x2, y2, z2, x3, y3, z3, color);
+            return;
+        }
         
-        // Vertices quantized from screenspace to pixelspace
-        int v1X, v1Y, v2X, v2Y, v3X, v3Y;
-        v1X = (int)Math.round(v1X_D);
-        v1Y = (int)Math.round(v1Y_D);
-        v2X = (int)Math.round(v2X_D);
-        v2Y = (int)Math.round(v2Y_D);
-        v3X = (int)Math.round(v3X_D);
-        v3Y = (int)Math.round(v3Y_D);
+        // The inverse depth of the triangle as a plane over screenspace, 
+        // z = z1 + dzdx*(x - x1) + dzdy*(y - y1)
+        double area = (x2 - x1)*(y3 - y1) - (x3 - x1)*(y2 - y1);
+        if (area == 0 || Double.isNaN(area)) {
+            return;
+        }
+        double dzdx = ((z2 - z1)*(y3 - y1) - (z3 - z1)*(y2 - y1))/area;
+        double dzdy = ((x2 - x1)*(z3 - z1) - (x3 - x1)*(z2 - z1))/area;
+        double[] x = triangleClipper.screenX, y = triangleClipper.screenY;
+        x[0] = x1; y[0] = y1;
+        x[1] = x2; y[1] = y2;
+        x[2] = x3; y[2] = y3;
+        triangleClipper.screenVertexCount = 3;
+        int vertexCount = triangleClipper.clipToScreen(0, 0, width - 1, height - 1);
+        if (vertexCount < 3) {
+            return;
+        }
+        double firstZ = z1 + dzdx*(x[0] - x1) + dzdy*(y[0] - y1);
+        for (int i = 1; i < vertexCount - 1; i++) {
+            edgeRasterizer.addTriangle(
+                    x[0], y[0], firstZ,
+                    x[i], y[i], z1 + dzdx*(x[i] - x1) + dzdy*(y[i] - y1),
+                    x[i + 1], y[i + 1], z1 + dzdx*(x[i + 1] - x1) + dzdy*(y[i + 1] - y1), color);
+        }
+    }
+    private double toScreenX(double projectedX) {
+        return ((projectedX+1)/2)*width;
+    }
+    private double toScreenY(double projectedY) {
+        return ((projectedY+1)/2)*height;
+    }
+    static boolean isInGuardBand(double x, double y) {
+        return Math.abs(x) <= GUARD_BAND && Math.abs(y) <= GUARD_BAND;
+    }
+
+//------------------------------------------------------------------------------
+    private void rasterizePolygon(int triangleIndex, int d1, int d2, int d3) {
+        int i1 = mesh.indices[triangleIndex*3];
+        int i2 = mesh.indices[triangleIndex*3 + 1];
+        int i3 = mesh.indices[triangleIndex*3 + 2];
+        translatedPlane.set(
+                translatedVertex1.set(viewX[i1], viewY[i1], viewZ[i1]), 
+                translatedVertex2.set(viewX[i2], viewY[i2], viewZ[i2]), 
+                translatedVertex3.set(viewX[i3], viewY[i3], viewZ[i3]));
         
-        int rowHi = Math.max(Math.max(v1Y, v2Y), v3Y);
-        int rowLo = Math.min(Math.min(v1Y, v2Y), v3Y);
-        int colHi = Math.max(Math.max(v1X, v2X), v3X);
-        int colLo = Math.min(Math.min(v1X, v2X), v3X);
+        // Vertices converted from normalspace to screenspace, after clipping the 
+        // triangle to the near and far planes if it straddles them
+        double[] x = triangleClipper.screenX, y = triangleClipper.screenY;
+        int clipCode = clipCodes[i1] | clipCodes[i2] | clipCodes[i3];
+        int vertexCount;
+        if (clipCode == 0) {
+            x[0] = toScreenX(projectedX[i1]); y[0] = toScreenY(projectedY[i1]);
+            x[1] = toScreenX(projectedX[i2]); y[1] = toScreenY(projectedY[i2]);
+            x[2] = toScreenX(projectedX[i3]); y[2] = toScreenY(projectedY[i3]);
+            vertexCount = 3;
+        } else {
+            vertexCount = triangleClipper.clip(
+                    viewX[i1], viewY[i1], viewZ[i1], 
+                    viewX[i2], viewY[i2], viewZ[i2], 
+                    viewX[i3], viewY[i3], viewZ[i3], clipCode, nearDistance, farDistance);
+            for (int i = 0; i < vertexCount; i++) {
+                double z = triangleClipper.z[i];
+                x[i] = toScreenX(triangleClipper.x[i]/z);
+                y[i] = toScreenY(triangleClipper.y[i]/z);
+            }
+        }
+        
+        // Only polygons reaching past the guard band are clipped to the screen; the 
+        // edges of the rest are walked as they are, skipping the rows off screen
+        triangleClipper.screenVertexCount = vertexCount;
+        for (int i = 0; i < vertexCount; i++) {
+            if (!isInGuardBand(x[i], y[i])) {
+                vertexCount = triangleClipper.clipToScreen(0, 0, width - 1, height - 1);
+                break;
+            }
+        }
+        if (vertexCount < 3) {
+            return;
+        }
+        
+        // Vertices quantized from screenspace to pixelspace
+        int rowHi = Integer.MIN_VALUE;
+        int rowLo = Integer.MAX_VALUE;
+        for (int i = 0; i < vertexCount; i++) {
+            int row = (int)Math.round(y[i]);
+            rowHi = Math.max(rowHi, row);
+            rowLo = Math.min(rowLo, row);
+        }
         rowHi = (rowHi < 0)? 0 : rowHi;
         rowHi = (rowHi >= height)? height - 1 : rowHi;
         rowLo = (rowLo < 0)? 0 : rowLo;
         rowLo = (rowLo >= height)? height - 1 : rowLo;
-        colHi = (colHi < 0)? 0 : colHi;
-        colHi = (colHi >= width)? width - 1 : colHi;
-        colLo = (colLo < 0)? 0 : colLo;
-        colLo = (colLo >= width)? width - 1 : colLo;
-        
         
-        int[] leftBounds = new int[rowHi-rowLo+1];
-        int[] rightBounds = new int[rowHi-rowLo+1];
-        for (int i = 0; i < leftBounds.length; i++) {
-            leftBounds[i] = width;
-        }
-        for (int i = 0; i < clippedPolygonVertices.size(); i++) {
-            double[] p1 = clippedPolygonVertices.get(i);
-            double[] p2 = clippedPolygonVertices.get((i + 1) % clippedPolygonVertices.size());
+        int rowCount = rowHi-rowLo+1;
+        Arrays.fill(leftBounds, 0, rowCount, width);
+        Arrays.fill(rightBounds, 0, rowCount, 0);
+        for (int i = 0; i < vertexCount; i++) {
+            int j = (i + 1) % vertexCount;
             getLinePoints(
-                (int)Math.round(p1[0])-colLo, (int)Math.round(p1[1])-rowLo,
-                (int)Math.round(p2[0])-colLo, (int)Math.round(p2[1])-rowLo,
-                leftBounds, rightBounds, colLo);
+                (int)Math.round(x[i]), (int)Math.round(y[i])-rowLo,
+                (int)Math.round(x[j]), (int)Math.round(y[j])-rowLo,
+                rowCount);
         }
+        // The ray through pixel (j, i) is r = (2j/width - 1, 2i/height - 1, 1), inverting 
+        // toScreenX and toScreenY, and meets the plane N•X = d at z = d/(N•r), so 1/z is
+        // linear in j and i
+        double planeD = translatedPlane.getD();
+        if (planeD == 0) {
+            return;
+        }
+        Vec3 normal = translatedPlane.getNormal();
+        double dInvZdj = 2*normal.x/(width*planeD);
+        double dInvZdi = 2*normal.y/(height*planeD);
+        double invZOrigin = (normal.z - normal.x - normal.y)/planeD;
+        int color = getPixelValue(triangleIndex);
+        int[] pixels = isWritingTriangleIds? triangleIdBuffer : frameBuffer;
         for (int i = rowLo; i < rowHi ; i++) {
+            int zBufferRow = i*width;
+            int frameBufferRow = (height-1-i)*width;
+            double invZ = invZOrigin + dInvZdi*i + dInvZdj*leftBounds[i-rowLo];
             for (int j = leftBounds[i-rowLo]; j < rightBounds[i-rowLo] ; j++) {   
-                // Check if point is not parallel
-                Vector intersectionVector = translatedPolygon.lineIntersection(projectionPoints[i][j]);
-                if (intersectionVector != null) {
-
-                    // Check against zBuffer, and for proximity
-                    double z = intersectionVector.getLength();
-                    if (zBuffer[i][j] == 0 || z < zBuffer[i][j]) {
-                        zBuffer[i][j] = z;
-                        Color color = polygon.getFaceColor();
-                        int[] colorArray = {color.getRed(), color.getGreen(), color.getBlue()};
-                        image.getRaster().setPixel(j, height-1-i, colorArray);
-                    }
+                // Check against zBuffer, points behind the camera or at infinity never pass
+                fragmentCount++;
+                float depth = (float)invZ;
+                if (zBuffer.testAndSet(zBufferRow + j, depth)) {
+                    pixels[frameBufferRow + j] = color;
+                    writtenFragmentCount++;
                 }
+                invZ += dInvZdj;
             }
         }
     }
-    private void clipPolygon() {
-        int numOfClipperVertices = clipper.size();
-        for (int i = 0; i < numOfClipperVertices; i++) {
- 
-            int len2 = clippedPolygonVertices.size();
-            List<double[]> input = clippedPolygonVertices;
-            clippedPolygonVertices = new ArrayList<>(len2);
- 
-            double[] A = clipper.get((i + numOfClipperVertices - 1) % numOfClipperVertices);
-            double[] B = clipper.get(i);
- 
-            for (int j = 0; j < len2; j++) {
- 
-                double[] P = input.get((j + len2 - 1) % len2);
-                double[] Q = input.get(j);
- 
-                if (isInside(A, B, Q)) {
-                    if (!isInside(A, B, P))
-                        clippedPolygonVertices.add(intersection(A, B, P, Q));
-                    clippedPolygonVertices.add(Q);
-                } else if (isInside(A, B, P))
-                    clippedPolygonVertices.add(intersection(A, B, P, Q));
-            }
-        }
-    }
- 
-    private boolean isInside(double[] a, double[] b, double[] c) {
-        return (a[0] - c[0]) * (b[1] - c[1]) > (a[1] - c[1]) * (b[0] - c[0]);
-    }
- 
-    private double[] intersection(double[] a, double[] b, double[] p, double[] q) {
-        double A1 = b[1] - a[1];
-        double B1 = a[0] - b[0];
-        double C1 = A1 * a[0] + B1 * a[1];
- 
-        double A2 = q[1] - p[1];
-        double B2 = p[0] - q[0];
-        double C2 = A2 * p[0] + B2 * p[1];
- 
-        double det = A1 * B2 - A2 * B1;
-        double x = (B2 * C1 - B1 * C2) / det;
-        double y = (A1 * C2 - A2 * C1) / det;
- 
-        return new double[]{x, y};
-    }
-    private void getLinePoints(int x1, int y1, int x2, int y2, int[] leftBounds, int[] rightBounds, int colLo) {
+    private void getLinePoints(int x1, int y1, int x2, int y2, int rowCount) {
         // delta of exact value and rounded value of the dependent variable
         int d = 0;
  
@@ -305,12 +555,15 @@ public class Camera {
         if (dx >= dy) {     // The slope is less than 1
             int i = 0;
             while (true) {
-                int xNew = x+colLo;
-                if (xNew < leftBounds[y]) {
-                    leftBounds[y] = xNew;
-                }
-                if (xNew > rightBounds[y]) {
-                    rightBounds[y] = xNew;
+                if (y >= 0 && y < rowCount) {
+                    // Rows off screen are skipped, and columns off screen clamped to its edges
+                    int xNew = Math.min(Math.max(x, 0), width - 1);
+                    if (xNew < leftBounds[y]) {
+                        leftBounds[y] = xNew;
+                    }
+                    if (xNew > rightBounds[y]) {
+                        rightBounds[y] = xNew;
+                    }
                 }
                 if (x == x2)        // The end of the line has been reached, exit
                     break;
@@ -323,12 +576,15 @@ public class Camera {
             }
         } else {            // The slope is greater than 1
             while (true) {
-                int xNew = x+colLo;
-                if (xNew < leftBounds[y]) {
-                    leftBounds[y] = xNew;
-                }
-                if (xNew > rightBounds[y]) {
-                    rightBounds[y] = xNew;
+                if (y >= 0 && y < rowCount) {
+                    // Rows off screen are skipped, and columns off screen clamped to its edges
+                    int xNew = Math.min(Math.max(x, 0), width - 1);
+                    if (xNew < leftBounds[y]) {
+                        leftBounds[y] = xNew;
+                    }
+                    if (xNew > rightBounds[y]) {
+                        rightBounds[y] = xNew;
+                    }
                 }
                 if (y == y2)        // The end of the line has been reached, exit
                     break;
@@ -341,532 +597,62 @@ public class Camera {
             }
         }
     }
-//------------------------------------------------------------------------------
-    private void rasterizePolygon(ProjectedPolygon polygon, ProjectedPolygon translatedPolygon, int dummy, int dummy2) {
-        polygonBounds = polygon.getXYBounds();
-        Vector[] vertices = polygon.getVertices();
-        
-        // Vertices converted from normalspace to screenspace
-        double v1X_D = ((vertices[0].getComponent(0)+1)/2)*width;
-        double v1Y_D = ((vertices[0].getComponent(1)+1)/2)*height;
-        double v2X_D = ((vertices[1].getComponent(0)+1)/2)*width;
-        double v2Y_D = ((vertices[1].getComponent(1)+1)/2)*height;
-        double v3X_D = ((vertices[2].getComponent(0)+1)/2)*width;
-        double v3Y_D = ((vertices[2].getComponent(1)+1)/2)*height;
-        
-        // Vertices quantized from screenspace to pixelspace
-        int v1X, v1Y, v2X, v2Y, v3X, v3Y;
-        v1X = (int)Math.round(v1X_D);
-        v1Y = (int)Math.round(v1Y_D);
-        v2X = (int)Math.round(v2X_D);
-        v2Y = (int)Math.round(v2Y_D);
-        v3X = (int)Math.round(v3X_D);
-        v3Y = (int)Math.round(v3Y_D);
-        
-        Sector v1Sector, v2Sector, v3Sector;
-        v1Sector = getSector(v1X, v1Y);
-        v2Sector = getSector(v2X, v2Y);
-        v3Sector = getSector(v3X, v3Y);
-        
-        int[] line1Points = new int[4];
-        int[] line2Points = new int[4];
-        int[] line3Points = new int[4];
-        
-        // Project first line
-        restrictLine(v1X, v1Y, v2X, v2Y, v1Sector, v2Sector, line1Points); 
-        restrictLine(v2X, v2Y, v3X, v3Y, v2Sector, v3Sector, line2Points); 
-        restrictLine(v1X, v1Y, v3X, v3Y, v1Sector, v3Sector, line3Points); 
-        
-        int rowHi = Math.max(Math.max(v1Y, v2Y), v3Y);
-        int rowLo = Math.min(Math.min(v1Y, v2Y), v3Y);
-        int colHi = Math.max(Math.max(v1X, v2X), v3X);
-        int colLo = Math.min(Math.min(v1X, v2X), v3X);
-        rowHi = (rowHi < 0)? 0 : rowHi;
-        rowHi = (rowHi >= height)? height - 1 : rowHi;
-        rowLo = (rowLo < 0)? 0 : rowLo;
-        rowLo = (rowLo >= height)? height - 1 : rowLo;
-        colHi = (colHi < 0)? 0 : colHi;
-        colHi = (colHi >= width)? width - 1 : colHi;
-        colLo = (colLo < 0)? 0 : colLo;
-        colLo = (colLo >= width)? width - 1 : colLo;
-        int[] leftBounds = new int[rowHi-rowLo+1];
-        int[] rightBounds = new int[rowHi-rowLo+1];
-        
-        for (int i = 0; i < leftBounds.length; i++) {
-            leftBounds[i] = width;
-        }
-        System.out.println();
-        System.out.println("Projected Vertices");
-        System.out.println(
-                "Vertex1, Line1 {" + line1Points[0] + " : " + line1Points[1] + "}\n" +
-                "Vertex2, Line1 {" + line1Points[2] + " : " + line1Points[3] + "}"
-        );
-        System.out.println(
-                "Vertex2, Line2 {" + line2Points[0] + " : " + line2Points[1] + "}\n" +
-                "Vertex3, Line2 {" + line2Points[2] + " : " + line2Points[3] + "}"
-        );
-        System.out.println(
-                "Vertex1, Line3 {" + line3Points[0] + " : " + line3Points[1] + "}\n" +
-                "Vertex3, Line3 {" + line3Points[2] + " : " + line3Points[3] + "}"
-        );
-        System.out.println("RowBounds: " + rowLo + " : " + rowHi);
-        System.out.println("ColBounds: " + colLo + " : " + colHi);
-        System.out.println("Num Of Rows: " + leftBounds.length);
-        
-        getLinePoints(
-                line1Points[0]-colLo, line1Points[1]-rowLo, 
-                line1Points[2]-colLo, line1Points[3]-rowLo,
-                leftBounds, rightBounds, colLo);
-        getLinePoints(
-                line2Points[0]-colLo, line2Points[1]-rowLo, 
-                line2Points[2]-colLo, line2Points[3]-rowLo,
-                leftBounds, rightBounds, colLo);
-        getLinePoints(
-                line3Points[0]-colLo, line3Points[1]-rowLo, 
-                line3Points[2]-colLo, line3Points[3]-rowLo,
-                leftBounds, rightBounds, colLo);
-        
-        for (int i = 0; i < leftBounds.length; i++) {
-            leftBounds[i] = (leftBounds[i] < 0)? 0 : leftBounds[i];
-            leftBounds[i] = (leftBounds[i] > width-1)? width-1 : leftBounds[i];
-            rightBounds[i] = (rightBounds[i] < 0)? 0 : rightBounds[i];
-            rightBounds[i] = (rightBounds[i] > width-1)? width-1 : rightBounds[i];
-        }
-        System.out.println();
-        
-        // RASTERIZE //
-        for (int i = rowLo; i < rowHi ; i++) {
-            for (int j = leftBounds[i-rowLo]; j < rightBounds[i-rowLo] ; j++) {   
-                // Check if point is not parallel
-                Vector intersectionVector = translatedPolygon.lineIntersection(projectionPoints[i][j]);
-                if (intersectionVector != null) {
-
-                    // Check against zBuffer, and for proximity
-                    double z = intersectionVector.getLength();
-                    if (zBuffer[i][j] == 0 || z < zBuffer[i][j]) {
-                        zBuffer[i][j] = z;
-                        Color color = polygon.getFaceColor();
-                        int[] colorArray = {color.getRed(), color.getGreen(), color.getBlue()};
-                        image.getRaster().setPixel(j, height-1-i, colorArray);
-                    }
-                }
-            }
-        }
-    }
-    private void restrictLine(double v1X, double v1Y, double v2X, double v2Y, Sector v1Sector, Sector v2Sector, int[] linePoints) {
-        // y = (^y)/(^x)(x-x1) + y1
-        // x = (^y)/(^x)(y-y1) + x1
-        double deltaX = v2X-v1X;
-        double deltaY = v2Y-v1Y;
-        if (v1Sector == Sector.CENTER_MIDDLE) {
-            linePoints[0] = (int)Math.round(v1X);
-            linePoints[1] = (int)Math.round(v1Y);
-            System.out.println("IN CENTER: " + v1X + " : " + v1Y + " --> " + linePoints[0] + " : " + linePoints[1]);
-        } else {
-            if (           // Vertex is in the LEFT trapezoid
-                v1Sector == Sector.TOP_LEFT_LO ||
-                v1Sector == Sector.CENTER_LEFT ||
-                v1Sector == Sector.BOT_LEFT_HI) {
-                linePoints[0] = 0;
-                linePoints[1] = (int)Math.round(((v2Y-v1Y)/(v2X-v1X)*(-v1X)+v1Y));
-                linePoints[1] = (linePoints[1] > height - 1)? height - 1 : linePoints[1]; 
-                linePoints[1] = (linePoints[1] < 0)? 0 : linePoints[1];
-                System.out.println("LEFT TRAPEZOID (" + v1Sector + "): " + v1X + " : " + v1Y + " --> " + linePoints[0] + " : " + linePoints[1]);
-            } else if (    // Vertex is in the RIGHT trapezoid
-                v1Sector == Sector.TOP_RIGHT_LO ||
-                v1Sector == Sector.CENTER_RIGHT ||
-                v1Sector == Sector.BOT_RIGHT_HI) {
-                linePoints[0] = width-1;
-                linePoints[1] = (int)Math.round(((v2Y-v1Y)/(v2X-v1X)*(width-1-v1X)+v1Y));
-                System.out.println("RIGHT TRAPEZOID (" + v1Sector + "): " + v1X + " : " + v1Y + " --> " + linePoints[0] + " : " + linePoints[1]);
-            } else if (    // Vertex is in the TOP trapezoid
-                v1Sector == Sector.TOP_LEFT_HI ||
-                v1Sector == Sector.TOP_MIDDLE ||
-                v1Sector == Sector.TOP_RIGHT_HI) {
-                linePoints[0] = (int)Math.round((height-1-v1Y)*((v2X-v1X)/(v2Y-v1Y))+v1X);
-                System.out.println("TOP TRAPEZOID (" + v1Sector + "): " + v1X + " : " + v1Y + " --> " + linePoints[0] + " : " + linePoints[1]);
-                linePoints[1] = height-1;
-            } else if (    // Vertex is in the BOTTOM trapezoid
-                v1Sector == Sector.BOT_LEFT_LO ||
-                v1Sector == Sector.BOT_MIDDLE ||
-                v1Sector == Sector.BOT_RIGHT_LO) {
-                linePoints[0] = (int)Math.round((-v1Y)*((v2X-v1X)/(v2Y-v1Y))+v1X);
-                System.out.println("BOT TRAPEZOID (" + v1Sector + "): " + v1X + " : " + v1Y + " --> " + linePoints[0] + " : " + linePoints[1]);
-                linePoints[1] = 0;
-            }
-        }
-        if (v2Sector == Sector.CENTER_MIDDLE) {
-            linePoints[2] = (int)Math.round(v2X);
-            linePoints[3] = (int)Math.round(v2Y);
-            System.out.println("IN CENTER: " + v2X + " : " + v2Y + " --> " + linePoints[2] + " : " + linePoints[3]);
-        } else {
-            if (           // Vertex is in the LEFT trapezoid
-                v2Sector == Sector.TOP_LEFT_LO ||
-                v2Sector == Sector.CENTER_LEFT ||
-                v2Sector == Sector.BOT_LEFT_HI) {
-                linePoints[2] = 0;
-                linePoints[3] = (int)Math.round(((v2Y-v1Y)/(v2X-v1X)*(-v1X)+v1Y));
-                System.out.println("LEFT TRAPEZOID (" + v2Sector + "): " + v2X + " : " + v2Y + " --> " + linePoints[2] + " : " + linePoints[3]);
-            } else if (    // Vertex is in the RIGHT trapezoid
-                v2Sector == Sector.TOP_RIGHT_LO ||
-                v2Sector == Sector.CENTER_RIGHT ||
-                v2Sector == Sector.BOT_RIGHT_HI) {
-                linePoints[2] = width-1;
-                linePoints[3] = (int)Math.round(((v2Y-v1Y)/(v2X-v1X)*(width-1-v1X)+v1Y));
-                System.out.println("RIGHT TRAPEZOID (" + v2Sector + "): " + v2X + " : " + v2Y + " --> " + linePoints[2] + " : " + linePoints[3]);
-            } else if (    // Vertex is in the TOP trapezoid
-                v2Sector == Sector.TOP_LEFT_HI ||
-                v2Sector == Sector.TOP_MIDDLE ||
-                v2Sector == Sector.TOP_RIGHT_HI) {
-                linePoints[2] = (int)Math.round((height-1-v1Y)*((v2X-v1X)/(v2Y-v1Y))+v1X);
-                linePoints[3] = height-1;
-                System.out.println("TOP TRAPEZOID (" + v2Sector + "): " + v2X + " : " + v2Y + " --> " + linePoints[2] + " : " + linePoints[3]);
-            } else if (    // Vertex is in the BOTTOM trapezoid
-                v2Sector == Sector.BOT_LEFT_LO ||
-                v2Sector == Sector.BOT_MIDDLE ||
-                v2Sector == Sector.BOT_RIGHT_LO) {
-                linePoints[2] = (int)Math.round((-v1Y)*((v2X-v1X)/(v2Y-v1Y))+v1X);
-                linePoints[3] = 0;
-                System.out.println("BOT TRAPEZOID (" + v2Sector + "): " + v2X + " : " + v2Y + " --> " + linePoints[2] + " : " + linePoints[3]);
-            }
-        }
-        linePoints[0] = (linePoints[0] > width - 1)? width - 1 : linePoints[0]; 
-        linePoints[0] = (linePoints[0] < 0)? 0 : linePoints[0];
-        
-        linePoints[1] = (linePoints[1] > height - 1)? height - 1 : linePoints[1]; 
-        linePoints[1] = (linePoints[1] < 0)? 0 : linePoints[1];
-        
-        linePoints[2] = (linePoints[2] > width - 1)? width - 1 : linePoints[2]; 
-        linePoints[2] = (linePoints[2] < 0)? 0 : linePoints[2];
-        
-        linePoints[3] = (linePoints[3] > height - 1)? height - 1 : linePoints[3]; 
-        linePoints[3] = (linePoints[3] < 0)? 0 : linePoints[3];
-    }
-    private Sector getSector(int v1X, int v1Y) { 
-        Row row;
-        Column col;
-        // Get column
-        if (v1X < 0) {
-            col = Column.LEFT;
-        } else if (v1X >= width) {
-            col = Column.RIGHT;
-        } else {
-            col = Column.MIDDLE;
-        }
-        
-        // Get row
-        if (v1Y < 0) {
-            row = Row.BOTTOM;
-        } else if (v1Y >= height) {
-            row = Row.TOP;
-        } else {
-            row = Row.CENTER;
-        }
-        
-        double negF = (v1X-width)*(height)-(v1Y)*(width);
-        double posF = (v1X)*(height)-(v1Y)*(width);
-        switch(row) {
-            case TOP:
-                switch (col) {
-                    case LEFT:     // top left
-                        if (negF >= 0)
-                            return Sector.TOP_LEFT_HI;
-                        else 
-                            return Sector.TOP_LEFT_LO;          // TESTED
-                    case MIDDLE:     // top middle
-                        return Sector.TOP_MIDDLE;
-                    case RIGHT:     // top right
-                        if (posF >= 0)
-                            return Sector.TOP_RIGHT_LO;         // TESTED
-                        else 
-                            return Sector.TOP_RIGHT_HI;         // TESTED
-                }
-                break;
-            case CENTER:
-                switch (col) {
-                    case LEFT:     // center left
-                        return Sector.CENTER_LEFT;
-                    case MIDDLE:     // center middle
-                        return Sector.CENTER_MIDDLE;
-                    case RIGHT:     // center right
-                        return Sector.CENTER_RIGHT;
-                }
-                break;
-            case BOTTOM:
-                switch (col) {
-                    case LEFT:     // bottom left
-                        if (posF >= 0)
-                            return Sector.BOT_RIGHT_HI;
-                        else 
-                            return Sector.BOT_RIGHT_LO;
-                    case MIDDLE:     // bottom middle
-                        return Sector.BOT_MIDDLE;
-                    case RIGHT:     // bottom right
-                        if (negF < 0)       // Slope is greater than 0
-                            return Sector.BOT_LEFT_HI;
-                        else 
-                            return Sector.BOT_LEFT_LO;
-                }
-        }
-        return Sector.ERROR;
-    }
-    
-//------------------------------------------------------------------------------
-    private void rasterizePolygon(ProjectedPolygon polygon, ProjectedPolygon translatedPolygon, int dummy) {
-        /*
-        Algorithm:
-            Get each pair of vertices (3 pairs)
-            Find the equation of the line that passes through each pair of vertices
-            Calculate the polygon interior integer points along the line segment
-            Store the x-bounds information
-            Walk through each row between the x-bounds, rasterizing each corresponding pixel
-        */
-        polygonBounds = polygon.getXYBounds();
-        Vector[] vertices = polygon.getVertices();
-        
-        // Vertex co-ordinates in projection space (-1 to 1)
-        double v1X = (vertices[0].getComponent(0)+1)/2;
-        double v1Y = (vertices[0].getComponent(1)+1)/2;
-        double v2X = (vertices[1].getComponent(0)+1)/2;
-        double v2Y = (vertices[1].getComponent(1)+1)/2;
-        double v3X = (vertices[2].getComponent(0)+1)/2;
-        double v3Y = (vertices[2].getComponent(1)+1)/2;
-        
-        // Vertex y's in pixel space (indexes)
-        int v1YIndex = (int)((v1Y)*height);
-        v1YIndex = (v1YIndex < 0)? 0 : v1YIndex;
-        v1YIndex = (v1YIndex >= height)? height - 1 : v1YIndex;
-        int v2YIndex = (int)((v2Y)*height);
-        v2YIndex = (v2YIndex < 0)? 0 : v2YIndex;
-        v2YIndex = (v2YIndex >= height)? height - 1 : v2YIndex;
-        int v3YIndex = (int)((v3Y)*height);
-        v3YIndex = (v3YIndex < 0)? 0 : v3YIndex;
-        v3YIndex = (v3YIndex >= height)? height - 1 : v3YIndex;
-        
-        // Upper and lower y index bounds
-        int rowHi = Math.max(Math.max(v1YIndex, v2YIndex), v3YIndex);
-        int rowLo = Math.min(Math.min(v1YIndex, v2YIndex), v3YIndex);
-        int[] loXBounds = new int[rowHi+1-rowLo];
-        int[] hiXBounds = new int[rowHi+1-rowLo];
-        
-        // Initialize bounds to illegal pixel index values for error catching
-        for (int i = 0; i < loXBounds.length; i++) {
-            loXBounds[i] = -1;
-            hiXBounds[i] = -1;
-        }
-        updateBoundsFromLine(loXBounds, hiXBounds, rowLo, v1YIndex, v2YIndex, v1X, v2X, v1Y, v2Y, polygon);
-        updateBoundsFromLine(loXBounds, hiXBounds, rowLo, v2YIndex, v3YIndex, v2X, v3X, v2Y, v3Y, polygon);
-        updateBoundsFromLine(loXBounds, hiXBounds, rowLo, v1YIndex, v3YIndex, v1X, v3X, v1Y, v3Y, polygon);
-        
-        for (int i = rowLo; i < rowHi; i++) {
-            for (int j = loXBounds[i-rowLo]; j <= hiXBounds[i-rowLo]; j++) {
-                if (loXBounds[i-rowLo] >= 0 && hiXBounds[i-rowLo] >= 0) {
-                    
-                    // Check if point is not parallel
-                    Vector intersectionVector = translatedPolygon.lineIntersection(projectionPoints[i][j]);
-                    if (intersectionVector != null) {
-
-                        // Check against zBuffer, and for proximity
-                        double z = intersectionVector.getLength();
-                        if (zBuffer[i][j] == 0 || z > EPSILON && z < zBuffer[i][j]) {  
-                            zBuffer[i][j] = z;
-                            Color color = polygon.getFaceColor();
-                            int[] colorArray = {color.getRed(), color.getGreen(), color.getBlue()};
-                            image.getRaster().setPixel(j, height-1-i, colorArray);
-                        }
-                    }
-                }
-            }
-        }
-    }
-    private void updateBoundsFromLine(
-            int[] loXBounds, 
-            int[] hiXBounds, 
-            int rowLo, 
-            int v1YIndex, 
-            int v2YIndex, 
-            double v1X, 
-            double v2X, 
-            double v1Y, 
-            double v2Y,
-            ProjectedPolygon polygon) {
-        double m = (v1Y-v2Y)/(v1X-v2X);
-        for (int i = Math.min(v1YIndex, v2YIndex); i <= Math.max(v1YIndex, v2YIndex); i++) {
-            double x;
-            double y = i/((double)height);
-            
-            // Find the X at the given y for this line
-            if (Math.abs(v1X - v2X) < EPSILON || Math.abs(m) < EPSILON) {
-                x = v1X;
-            } else {
-                x = getXAtY(v2X, v1X, m, y);
-            }
-
-            // Find the points on either side of the line with integer x's
-            int xIntLeft = (int)(x*width);
-            int xIntRight = (int)(x*width+1);
-            double xLeft = xIntLeft/((double)width);
-            double xRight = xIntRight/((double)width);
-            double xFinal = -1;
-            
-            // Determine which integer x is in the triangle
-            if (isInTriangle(polygon, xLeft*2-1, y*2-1)) {
-                xFinal = xLeft;
-            } else if (isInTriangle(polygon, xRight*2-1, y*2-1)) {
-                xFinal = xRight;
-            }
-            
-            // Find the lower or bound this point rests on and set it
-            if (loXBounds[i-rowLo] < 0) {
-                loXBounds[i-rowLo] = (int)(xFinal*width);
-                loXBounds[i-rowLo] = (loXBounds[i-rowLo] >= width)? width - 1 : loXBounds[i-rowLo];
-            } else if (xFinal != -1 && (int)(xFinal*width) < loXBounds[i-rowLo]) {
-                loXBounds[i-rowLo] = (int)(xFinal*width);
-                loXBounds[i-rowLo] = (loXBounds[i-rowLo] >= width)? width - 1 : loXBounds[i-rowLo];
-            }
-            if (hiXBounds[i-rowLo] < 0) {
-                hiXBounds[i-rowLo] = (int)(xFinal*width)-1;
-                hiXBounds[i-rowLo] = (hiXBounds[i-rowLo] >= width)? width - 1 : hiXBounds[i-rowLo];
-            } else if (xFinal != -1 && hiXBounds[i-rowLo] == -1 || (int)(xFinal*width) > hiXBounds[i-rowLo]) {
-                hiXBounds[i-rowLo] = (int)(xFinal*width)-1;
-                hiXBounds[i-rowLo] = (hiXBounds[i-rowLo] >= width)? width - 1 : hiXBounds[i-rowLo];
-            }
-        }
-    }
-    private double getXAtY(double y1, double x1, double m, double y) {
-        return ((y-y1)/m) + x1;
-    }
-//------------------------------------------------------------------------------
-    private void rasterizePolygon(ProjectedPolygon polygon, ProjectedPolygon translatedPolygon) {
-        // Convert polygon bounds to indices
-        polygonBounds = polygon.getXYBounds();
-        int colLo = (int)(((polygonBounds[0]+1)/2)*height);
-        int colHi = (int)(((polygonBounds[1]+1)/2)*height+1);
-        int rowLo = (int)(((polygonBounds[2]+1)/2)*width);
-        int rowHi = (int)(((polygonBounds[3]+1)/2)*width+1);
-        
-        rowLo = (rowLo < 0)? 0 : rowLo;
-        rowLo = (rowLo >= height)? height - 1 : rowLo;
-
-        rowHi = (rowHi < 0)? 0 : rowHi;
-        rowHi = (rowHi >= height)? height - 1 : rowHi;
-
-        colLo = (colLo < 0)? 0 : colLo;
-        colLo = (colLo >= width)? width - 1 : colLo;
-
-        colHi = (colHi < 0)? 0 : colHi;
-        colHi = (colHi >= width)? width - 1 : colHi;
-        for (int i = rowLo; i <= rowHi; i++) {
-            for (int j = colLo; j <= colHi; j++) {
-                
-                // Check if point is in triangle
-                if (isInTriangle(polygon, projectionPoints[i][j])) {
-
-                    // Check if point is not parallel
-                    Vector intersectionVector = translatedPolygon.lineIntersection(projectionPoints[i][j]);
-                    if (intersectionVector != null) {
-                        
-                        // Check against zBuffer, and for proximity
-                        double z = intersectionVector.getLength();
-                        if (zBuffer[i][j] == 0 || z > EPSILON && z < zBuffer[i][j]) {  
-                            zBuffer[i][j] = z;
-                            Color color = polygon.getFaceColor();
-                            int[] colorArray = {color.getRed(), color.getGreen(), color.getBlue()};
-                            image.getRaster().setPixel(j, height-1-i, colorArray);
-                        }
-                    }
-                }
-            }
-        }
-        image.flush();
-    }
-    private boolean isInTriangle(Polygon polygon, double x, double y) {
-        Vector[] vertices = polygon.getVertices();
-        double x1 = vertices[0].getComponent(0);
-        double y1 = vertices[0].getComponent(1);
-        double x2 = vertices[1].getComponent(0);
-        double y2 = vertices[1].getComponent(1);
-        double x3 = vertices[2].getComponent(0);
-        double y3 = vertices[2].getComponent(1);
-        
-        double denominator = ((y2 - y3)*(x1 - x3) + (x3 - x2)*(y1 - y3));
-        double a = ((y2 - y3)*(x - x3) + (x3 - x2)*(y - y3))/denominator;
-        double b = ((y3 - y1)*(x - x3) + (x1 - x3)*(y - y3))/denominator;
-        double c = 1 - a - b;
-        return 0 <= a && a <= 1 && 0 <= b && b <= 1 && 0 <= c && c <= 1;
-    }
-    private boolean isInTriangle(Polygon polygon, Vector pointVector) {
-        Vector[] vertices = polygon.getVertices();
-        double x = pointVector.getComponent(0);
-        double y = pointVector.getComponent(1);
-        double x1 = vertices[0].getComponent(0);
-        double y1 = vertices[0].getComponent(1);
-        double x2 = vertices[1].getComponent(0);
-        double y2 = vertices[1].getComponent(1);
-        double x3 = vertices[2].getComponent(0);
-        double y3 = vertices[2].getComponent(1);
-        
-        double denominator = ((y2 - y3)*(x1 - x3) + (x3 - x2)*(y1 - y3));
-        double a = ((y2 - y3)*(x - x3) + (x3 - x2)*(y - y3))/denominator;
-        double b = ((y3 - y1)*(x - x3) + (x1 - x3)*(y - y3))/denominator;
-        double c = 1 - a - b;
-        return 0 <= a && a <= 1 && 0 <= b && b <= 1 && 0 <= c && c <= 1;
-    }
-    private void setProjectionPoints() {
-        projectionPlane = new Plane(projectionPlanePosition, normalVector);
-        Vector[] projectionVertices = new Vector[4];
-        projectionVertices[0] = new Vector(new double[]{1, 1, 1});        
-        projectionVertices[1] = new Vector(new double[]{-1, -1, 1});
-        projectionVertices[2] = new Vector(new double[]{1, -1, 1});
-        projectionVertices[3] = new Vector(new double[]{-1, 1, 1});
-        projectionPoints = projectionPlane.getGridOfVectors(height, width, projectionVertices);
-    }
     /**
      * Moves the camera in the given direction by an amount adjusted by the translationScalar (speed)
      * @param direction The direction in which the camera is to move
      */
     public void move(Direction direction) {
-        double x = cameraPositionVector.getComponent(0);
-        double y = cameraPositionVector.getComponent(1);
-        double z = cameraPositionVector.getComponent(2);
-
-        double xr = cameraRotationVector.getComponent(0)*translationScalar*0.1;
-        double yr = cameraRotationVector.getComponent(1)*translationScalar*0.1;
-        double zr = cameraRotationVector.getComponent(2)*translationScalar*0.1;
+        double xr = cameraRotationVector.x*translationScalar*0.1;
+        double yr = cameraRotationVector.y*translationScalar*0.1;
+        double zr = cameraRotationVector.z*translationScalar*0.1;
         switch(direction) {
             case FORWARD:
-                cameraPositionVector = new Vector(new double[]{x + xr, y + yr, z + zr});
+                cameraPositionVector.add(fromCameraVector.set(xr, yr, zr));
                 break;
             case BACKWARD:
-                cameraPositionVector = new Vector(new double[]{x + -xr, y + -yr, z + -zr});
+                cameraPositionVector.sub(fromCameraVector.set(xr, yr, zr));
                 break;
             case LEFT:
-                cameraPositionVector = new Vector(new double[]{x + -zr, y, z + xr});
+                cameraPositionVector.add(fromCameraVector.set(-zr, 0, xr));
                 break;
             case RIGHT:
-                cameraPositionVector = new Vector(new double[]{x + zr, y, z + -xr});
+                cameraPositionVector.add(fromCameraVector.set(zr, 0, -xr));
                 break;
             case UP:
-                cameraPositionVector = cameraPositionVector.add(cameraPlaneNormalVector.multiply(translationScalar*0.1));
+                cameraPositionVector.add(cameraPlaneNormalVector.scaleInto(translationScalar*0.1, fromCameraVector));
                 break;
             case DOWN:
-                cameraPositionVector = cameraPositionVector.add(cameraPlaneNormalVector.multiply(-1*translationScalar*0.1));
+                cameraPositionVector.add(cameraPlaneNormalVector.scaleInto(-1*translationScalar*0.1, fromCameraVector));
                 break;
         }
+        isViewMatrixStale = true;
     }
+    /**
+     * Rotates the camera by the given whole number of degrees of yaw and pitch
+     * @param deltaTheta The change in yaw, in degrees
+     * @param deltaPhi The change in pitch, in degrees
+     */
     public void rotate(int deltaTheta, int deltaPhi) {
-        // Adjust rotation angles
-        theta = (theta+deltaTheta)%360;
-        theta = (theta < 0)? 360+theta : theta;
-        
-        phi = (phi+deltaPhi)%360;
-        phi = (phi < 0)? 360+phi : phi;
+        rotate((double)deltaTheta, (double)deltaPhi);
+    }
 
-        // Apply rotations to camera direction
-        yawMatrix = Matrix.get3DYRotationMatrix(Math.toRadians(theta));
-        pitchMatrix = Matrix.get3DXRotationMatrix(Math.toRadians(phi));
-        cameraRotationVector = (((normalVector.multiply(pitchMatrix)).getUnitVector()).multiply(yawMatrix)).getUnitVector();
-        cameraRotationVector.setComponent(-cameraRotationVector.getComponent(1), 1);
+    /**
+     * Rotates the camera by the given yaw and pitch, which may be fractions of a degree
+     * @param deltaTheta The change in yaw, in degrees
+     * @param deltaPhi The change in pitch, in degrees
+     */
+    public void rotate(double deltaTheta, double deltaPhi) {
+        orientation.rotate(deltaTheta, deltaPhi);
+        updateBasis();
+    }
+    /**
+     * Copies the basis of the camera orientation into the right, up and direction vectors
+     */
+    private void updateBasis() {
+        orientation.getRight(rightVector);
+        orientation.getUp(upVector);
+        orientation.getForward(cameraRotationVector);
+        isViewMatrixStale = true;
     }
       
 ////////////////////////////////////////////////////////////////////////////////
@@ -879,8 +665,8 @@ public class Camera {
         String[] data = {
                         "Camera Position: " + cameraPositionVector,
                         "Camera Direction: " + cameraRotationVector,
-                        "Yaw: " + theta + "°",
-                        "Pitch: " + phi + "°"
+                        "Yaw: " + String.format("%.1f", orientation.getYaw()) + "°",
+                        "Pitch: " + String.format("%.1f", orientation.getPitch()) + "°"
                 };
         return data;
     }
@@ -898,7 +684,7 @@ public class Camera {
      * @return the current x position of the camera
      */
     public double getXPosition() {
-        return cameraPositionVector.getComponent(0);
+        return cameraPositionVector.x;
     }
 
     /**
@@ -906,7 +692,7 @@ public class Camera {
      * @return the current y position of the camera
      */
     public double getYPosition() {
-        return cameraPositionVector.getComponent(1);
+        return cameraPositionVector.y;
     }
 
     /**
@@ -914,7 +700,7 @@ public class Camera {
      * @return the current z position of the camera
      */
     public double getZPosition() {
-        return cameraPositionVector.getComponent(2);
+        return cameraPositionVector.z;
     }
 
     /**
@@ -922,7 +708,7 @@ public class Camera {
      * @return the current x direction of the camera
      */
     public double getXDirection() {
-        return cameraRotationVector.getComponent(0);
+        return cameraRotationVector.x;
     }
 
     /**
@@ -930,7 +716,7 @@ public class Camera {
      * @return the current y direction of the camera
      */
     public double getYDirection() {
-        return cameraRotationVector.getComponent(1);
+        return cameraRotationVector.y;
     }
 
     /**
@@ -938,7 +724,7 @@ public class Camera {
      * @return the current z direction of the camera
      */
     public double getZDirection() {
-        return cameraRotationVector.getComponent(2);
+        return cameraRotationVector.z;
     }
 
     /**
@@ -956,7 +742,8 @@ public class Camera {
      * @param z The z position of the camera
      */
     public void setPosition(double x, double y, double z) {
-        cameraPositionVector = new Vector(new double[]{x, y, z});
+        cameraPositionVector.set(x, y, z);
+        isViewMatrixStale = true;
     }
 
     /**
@@ -966,26 +753,255 @@ public class Camera {
      * @param z The z direction of the camera
      */
     public void setDirection(double x, double y, double z) {
-        cameraRotationVector = (new Vector(new double[]{x, y, z})).getUnitVector();
+        cameraRotationVector.set(x, y, z).normalize();
+        orientation.set(
+                Math.toDegrees(Math.atan2(cameraRotationVector.x, cameraRotationVector.z)), 
+                Math.toDegrees(Math.asin(cameraRotationVector.y)));
+        updateBasis();
+    }
+
+    /**
+     * Sets the algorithm this camera fills triangles with
+     * @param rasterizer The rasterizer to use
+     */
+    public void setRasterizer(Rasterizer rasterizer) {
+        this.rasterizer = rasterizer;
+    }
+
+    /**
+     * Returns the algorithm this camera fills triangles with
+     * @return the algorithm this camera fills triangles with
+     */
+    public Rasterizer getRasterizer() {
+        return rasterizer;
+    }
+
+    /**
+     * Sets the number of threads the tiled rasterizer fills tiles on. By default it 
+     * uses the common ForkJoinPool
+     * @param parallelism The number of threads
+     */
+    public void setParallelism(int parallelism) {
+        if (pool != ForkJoinPool.commonPool()) {
+            pool.shutdown();
+        }
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Returns the number of threads the tiled rasterizer fills tiles on
+     * @return the number of threads the tiled rasterizer fills tiles on
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Sets the format this camera stores depths in. The depth buffer is recreated on 
+     * the next call to observe
+     * @param depthFormat The depth format to use
+     */
+    public void setDepthFormat(DepthFormat depthFormat) {
+        areBuffersStale |= this.depthFormat != depthFormat;
+        this.depthFormat = depthFormat;
+    }
+
+    /**
+     * Returns the format this camera stores depths in
+     * @return the format this camera stores depths in
+     */
+    public DepthFormat getDepthFormat() {
+        return depthFormat;
+    }
+
+    /**
+     * Returns the number of pixels found inside a triangle and depth tested during the 
+     * last call to observe
+     * @return the number of fragments rasterized in the last frame
+     */
+    public long getFragmentCount() {
+        return fragmentCount;
+    }
+
+    /**
+     * Sets the view space depth of the near plane, in front of which triangles are
+     * clipped away. A FIXED_24 depth buffer is recreated on the next call to observe
+     * @param nearDistance The depth of the near plane, which must be positive
+     */
+    public void setNearDistance(double nearDistance) {
+        if (!(nearDistance > 0)) {
+            throw new IllegalArgumentException("The near distance must be positive: " + nearDistance);
+        }
+        // Fixed point depths are fractions of the inverse near distance
+        areBuffersStale |= depthFormat == DepthFormat.FIXED_24 && this.nearDistance != nearDistance;
+        this.nearDistance = nearDistance;
+        isViewMatrixStale = true;
+    }
+
+    /**
+     * Returns the view space depth of the near plane
+     * @return the depth of the near plane
+     */
+    public double getNearDistance() {
+        return nearDistance;
+    }
+
+    /**
+     * Sets the view space depth of the far plane, behind which triangles are clipped
+     * away. By default it is infinite, and nothing is clipped
+     * @param farDistance The depth of the far plane, which may be infinite
+     */
+    public void setFarDistance(double farDistance) {
+        if (!(farDistance > nearDistance)) {
+            throw new IllegalArgumentException("The far distance must be beyond the near distance: " + farDistance);
+        }
+        this.farDistance = farDistance;
+        isViewMatrixStale = true;
+    }
+
+    /**
+     * Returns the view space depth of the far plane
+     * @return the depth of the far plane
+     */
+    public double getFarDistance() {
+        return farDistance;
+    }
+
+    /**
+     * Returns the number of objects whose bounding volume lay outside the view frustum
+     * during the last call to observe, and which were skipped entirely
+     * @return the number of objects culled in the last frame
+     */
+    public int getCulledObjectCount() {
+        return mesh.objectCount - geometry.visibleObjectCount;
+    }
+
+    /**
+     * Returns the number of pixels found inside a triangle during the last call to 
+     * observe, but rejected by the hierarchical depth buffer without being depth tested
+     * @return the number of fragments culled in the last frame
+     */
+    public long getCulledFragmentCount() {
+        return culledFragmentCount;
+    }
+
+    /**
+     * Returns the number of fragments that passed the depth test during the last call
+     * to observe, and were written. Fragments written and later drawn over are overdraw
+     * @return the number of fragments written in the last frame
+     */
+    public long getWrittenFragmentCount() {
+        return writtenFragmentCount;
+    }
+
+    /**
+     * Sets whether the triangles facing the camera are sorted front to back, by the 
+     * depth of their nearest vertex, before they are rasterized, so that hidden 
+     * triangles are more often drawn after what hides them, and rejected by the depth 
+     * test or the hierarchical depth buffer instead of being drawn over. Equally deep 
+     * triangles keep their order. It is disabled by default, drawing triangles in the
+     * order of the mesh
+     * @param isFrontToBackSortEnabled Whether triangles are sorted front to back
+     */
+    public void setFrontToBackSortEnabled(boolean isFrontToBackSortEnabled) {
+        this.isFrontToBackSortEnabled = isFrontToBackSortEnabled;
+    }
+
+    /**
+     * Returns whether triangles are sorted front to back before they are rasterized
+     * @return whether front to back sorting is enabled
+     */
+    public boolean isFrontToBackSortEnabled() {
+        return isFrontToBackSortEnabled;
+    }
+
+    /**
+     * Sets whether the edge function rasterizers reject triangles hidden behind what 
+     * has already been drawn, a block of pixels at a time, using a hierarchical depth 
+     * buffer. It is disabled by default, as in scenes with little occlusion walking 
+     * the blocks costs more than it culls, so scenes with deep occlusion opt in
+     * @param isHiZEnabled Whether hierarchical depth rejection is enabled
+     */
+    public void setHiZEnabled(boolean isHiZEnabled) {
+        edgeRasterizer.setHiZEnabled(isHiZEnabled);
+    }
+
+    /**
+     * Returns whether the edge function rasterizers use a hierarchical depth buffer
+     * @return whether hierarchical depth rejection is enabled
+     */
+    public boolean isHiZEnabled() {
+        return edgeRasterizer.isHiZEnabled();
+    }
+
+    /**
+     * Sets whether frames are rendered through a visibility buffer. Rasterization then
+     * writes only the depth and the index of the triangle drawn at each pixel, and the
+     * color of each pixel is resolved from its triangle afterwards, once. The triangle
+     * indices of the last frame are kept for picking, which otherwise renders them on
+     * demand. It is disabled by default
+     * @param isVisibilityBufferEnabled Whether frames are rendered through a visibility buffer
+     */
+    public void setVisibilityBufferEnabled(boolean isVisibilityBufferEnabled) {
+        this.isVisibilityBufferEnabled = isVisibilityBufferEnabled;
+    }
+
+    /**
+     * Returns whether frames are rendered through a visibility buffer
+     * @return whether visibility buffer mode is enabled
+     */
+    public boolean isVisibilityBufferEnabled() {
+        return isVisibilityBufferEnabled;
+    }
+
+    /**
+     * Returns the polygon drawn at the given pixel of the image. In visibility buffer 
+     * mode it is read from the triangle IDs of the last frame; otherwise the triangle 
+     * IDs of the current view are rendered for it first, into the triangle ID buffer
+     * and without touching the image. It is synchronized with observe, whose buffers it uses
+     * @param x The column of the pixel, from the left of the image
+     * @param y The row of the pixel, from the top of the image
+     * @return the polygon drawn at the pixel, or null if there is none, or the pixel is
+     * outside the image
+     */
+    public synchronized Polygon getPolygonAt(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height || areBuffersStale) {
+            return null;
+        }
+        if (!isVisibilityBufferEnabled) {
+            renderTriangleIds();
+        }
+        int triangleIndex = triangleIdBuffer[y*width + x];
+        return (triangleIndex < 0)? null : mesh.polygons[triangleIndex];
+    }
+
+    /**
+     * Renders the index of the triangle drawn at every pixel of the current view into
+     * the triangle ID buffer, for picking while frames are rendered directly
+     */
+    private void renderTriangleIds() {
+        isWritingTriangleIds = true;
+        projectPolygons();
+        if (rasterizer != Rasterizer.BSP) {
+            Arrays.fill(triangleIdBuffer, -1);
+            zBuffer.clear();
+        }
+        rasterizePolygons();
+        isWritingTriangleIds = false;
     }
     public void setWidth(int width) {
+        areBuffersStale |= this.width != width;
         this.width = width;
     }
     public void setHeight(int height) {
+        areBuffersStale |= this.height != height;
         this.height = height;
     }
     @Override
     public String toString() {
-        String str = "";
-        for (int i = 0; i < projectionPoints.length; i++) {
-            for (int j = 0; j < projectionPoints[0].length; j++) {
-                str += (projectionPoints[i][j] + " ");
-            }
-            str += "\n";
-        }
-        return str;
+        return String.join("\n", getData());
     }
-    private void printVectorArray2D(Vector[][] vectorArray2D, String message) {
+    private void printVectorArray2D(Vec3[][] vectorArray2D, String message) {
         System.out.println(message);
         for (int i = 0; i < vectorArray2D.length; i++) {
             for (int j = 0; j < vectorArray2D[0].length; j++) {
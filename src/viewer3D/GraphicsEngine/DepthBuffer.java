@@ -0,0 +1,94 @@
+package viewer3D.GraphicsEngine;
+
+/**
+ * A flat buffer of per pixel depths, indexed row*width + column. Depths are given to 
+ * and returned from the buffer as inverse view space depths (1/z, so larger values 
+ * are nearer); how they are stored is up to the format of the buffer
+ * @author Arik Dicks
+ */
+public abstract class DepthBuffer {
+    final int width;
+    final int height;
+
+    /**
+     * Constructs a depth buffer of the given size
+     * @param width The number of columns
+     * @param height The number of rows
+     */
+    DepthBuffer(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Constructs an empty depth buffer of the given size and format
+     * @param format The format the depths are stored in
+     * @param width The number of columns
+     * @param height The number of rows
+     * @param nearDistance The view space depth of the near plane, the nearest depth 
+     * the buffer is given; fixed point formats store depths as fractions of it
+     * @return an empty depth buffer
+     */
+    public static DepthBuffer create(DepthFormat format, int width, int height, double nearDistance) {
+        switch (format) {
+            case FLOAT:
+                return new FloatDepthBuffer(width, height);
+            case FIXED_24:
+                return new FixedDepthBuffer(width, height, nearDistance);
+            case REVERSED_FLOAT:
+                return new ReversedFloatDepthBuffer(width, height);
+            default:
+                return new StampedDepthBuffer(width, height);
+        }
+    }
+
+    /**
+     * Empties this buffer
+     */
+    public abstract void clear();
+
+    /**
+     * Stores the given inverse depth at the given index if it is nearer than the depth
+     * already there, or if the entry is empty
+     * @param index The index of a pixel, row*width + column
+     * @param depth An inverse depth; values that aren't positive never pass
+     * @return true if the depth was stored
+     */
+    public abstract boolean testAndSet(int index, float depth);
+
+    /**
+     * Returns the inverse depth stored at the given index, as precisely as the format 
+     * of this buffer holds it, or 0 if the entry is empty
+     * @param index The index of a pixel, row*width + column
+     * @return the inverse depth stored at the given index
+     */
+    public abstract float getDepth(int index);
+
+    /**
+     * Returns the format the depths of this buffer are stored in
+     * @return the format of this buffer
+     */
+    public abstract DepthFormat getFormat();
+
+    /**
+     * Returns the number of bytes of storage each pixel of this buffer takes
+     * @return the number of bytes per pixel
+     */
+    public abstract int getBytesPerPixel();
+
+    /**
+     * Returns the number of columns of this buffer
+     * @return the number of columns of this buffer
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the number of rows of this buffer
+     * @return the number of rows of this buffer
+     */
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,11 @@
+package viewer3D.GraphicsEngine;
+
+/**
+ * Specifies how a depth buffer stores depths. STAMPED packs a 32-bit float 1/z with 
+ * a frame generation in 8 bytes per pixel so clearing is free. FLOAT stores a 32-bit 
+ * float z, FIXED_24 a 24-bit fixed point 1/z packed with a 7-bit frame generation 
+ * into an int, leaving the sign bit clear, and REVERSED_FLOAT a 32-bit float 1/z, 
+ * each in 4 bytes per pixel
+ * @author Arik Dicks
+ */
+public enum DepthFormat {STAMPED, FLOAT, FIXED_24, REVERSED_FLOAT}
@@ -0,0 +1,530 @@
+package viewer3D.GraphicsEngine;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fills screenspace triangles into a frame buffer and depth buffer using fixed point
+ * edge functions. Vertices are snapped to a 28.4 subpixel grid, sixteen steps per 
+ * pixel, and inverse depths to 24.40 fixed point, so that setup and traversal step
+ * every edge function and depth in exact long arithmetic. Triangles are first added to
+ * a setup list in draw order, then filled either serially across the whole screen, or
+ * binned into square tiles which are filled in parallel on a ForkJoinPool. Each tile
+ * only touches its own pixels, and fills its triangles in draw order, so the tiled
+ * image is identical to the serial one.
+ * <p>
+ * Within a tile, triangles are filled block by block. A two level hierarchical depth 
+ * buffer (Hi-Z) keeps a conservative farthest inverse depth for every block and every 
+ * tile; a triangle whose nearest depth lies behind the farthest depth of a tile, or a 
+ * block, cannot pass the depth test anywhere in it, so its fragments there are counted
+ * as culled instead of being depth tested. The farthest depth of a block is only 
+ * raised when a triangle covers the whole block, which is what keeps it conservative
+ * @author Arik Dicks
+ */
+class EdgeFunctionRasterizer {
+    static final int TILE_SIZE = 64;
+    static final int BLOCK_SIZE = 8;
+    private static final int BLOCKS_PER_TILE = TILE_SIZE/BLOCK_SIZE;
+    static final int SUBPIXEL_BITS = 4;
+    static final int SUBPIXEL_SCALE = 1 << SUBPIXEL_BITS;
+    private static final double DEPTH_SCALE = 0x1p40;
+    private static final double DEPTH_UNIT = 0x1p-40;
+    // The largest magnitude of a fixed point depth over the bounding box of a triangle,
+    // which leaves room for the rounding of its increments
+    private static final double MAX_FIXED_DEPTH = 0x1p61;
+    // Tiles per task below which tile ranges are no longer split
+    private static final int TILES_PER_TASK = 1;
+    private int width;
+    private int height;
+    private int[] frameBuffer;
+    private DepthBuffer depthBuffer;
+
+    // Setup triangles, stored as a structure of arrays in draw order
+    private int triangleCount;
+    private int[] x1, y1, x2, y2, x3, y3;
+    private int[] colLo, colHi, rowLo, rowHi;
+    // The fixed point inverse depth at the first pixel of the bounding box, and its
+    // increments per pixel and per row
+    private long[] depthBase, depthDx, depthDy;
+    private int[] colors;
+
+    // Triangle indices binned per tile, in draw order
+    private int tileColumns;
+    private int tileRows;
+    private int[][] bins;
+    private int[] binSizes;
+    private long[] tileFragmentCounts;
+    private long[] tileCulledFragmentCounts;
+    private long[] tileWrittenFragmentCounts;
+    private long culledFragmentCount;
+    private long writtenFragmentCount;
+
+    // The farthest inverse depth stored in each block and each tile, or 0 if any of 
+    // its pixels may still be empty
+    private boolean isHiZEnabled;
+    private int blockColumns;
+    private float[] blockFarthestDepths;
+    private float[] tileFarthestDepths;
+
+    EdgeFunctionRasterizer() {
+        allocateTriangles(256);
+        bins = new int[0][];
+        binSizes = new int[0];
+        tileFragmentCounts = new long[0];
+        tileCulledFragmentCounts = new long[0];
+        tileWrittenFragmentCounts = new long[0];
+        blockFarthestDepths = new float[0];
+        tileFarthestDepths = new float[0];
+        isHiZEnabled = false;
+    }
+
+    /**
+     * Empties the setup list and targets the given buffers for the next fill
+     * @param width The width of the buffers
+     * @param height The height of the buffers
+     * @param frameBuffer The values of the pixels, packed colors or triangle IDs, in rows
+     * from the top of the image
+     * @param depthBuffer The inverse depths of the pixels, in rows from the bottom of the image
+     */
+    void reset(int width, int height, int[] frameBuffer, DepthBuffer depthBuffer) {
+        this.width = width;
+        this.height = height;
+        this.frameBuffer = frameBuffer;
+        this.depthBuffer = depthBuffer;
+        triangleCount = 0;
+        tileColumns = (width + TILE_SIZE - 1)/TILE_SIZE;
+        tileRows = (height + TILE_SIZE - 1)/TILE_SIZE;
+        blockColumns = (width + BLOCK_SIZE - 1)/BLOCK_SIZE;
+        int tileCount = tileColumns*tileRows;
+        int blockCount = blockColumns*((height + BLOCK_SIZE - 1)/BLOCK_SIZE);
+        if (tileFragmentCounts.length != tileCount) {
+            bins = new int[tileCount][16];
+            binSizes = new int[tileCount];
+            tileFragmentCounts = new long[tileCount];
+            tileCulledFragmentCounts = new long[tileCount];
+            tileWrittenFragmentCounts = new long[tileCount];
+            tileFarthestDepths = new float[tileCount];
+        }
+        if (blockFarthestDepths.length != blockCount) {
+            blockFarthestDepths = new float[blockCount];
+        }
+        Arrays.fill(tileFragmentCounts, 0);
+        Arrays.fill(tileCulledFragmentCounts, 0);
+        Arrays.fill(tileWrittenFragmentCounts, 0);
+        Arrays.fill(tileFarthestDepths, 0);
+        Arrays.fill(blockFarthestDepths, 0);
+    }
+
+    /**
+     * Sets whether triangles are tested against the hierarchical depth buffer before 
+     * their fragments are depth tested
+     * @param isHiZEnabled Whether hierarchical depth rejection is enabled
+     */
+    void setHiZEnabled(boolean isHiZEnabled) {
+        this.isHiZEnabled = isHiZEnabled;
+    }
+
+    /**
+     * Returns whether triangles are tested against the hierarchical depth buffer
+     * @return whether hierarchical depth rejection is enabled
+     */
+    boolean isHiZEnabled() {
+        return isHiZEnabled;
+    }
+
+    /**
+     * Adds the triangle with the given pixelspace vertices, inverse depths and packed
+     * color, or any other value to write to its pixels, to the setup list, unless it is
+     * degenerate or entirely off screen. The vertices are snapped to the subpixel grid, and
+     * the inverse depth of the snapped triangle is quantized to a fixed point plane over
+     * the pixels it may cover. The few triangles whose fixed point depths would overflow,
+     * slivers along which the depth changes by many orders of magnitude per pixel, are
+     * dropped
+     */
+    void addTriangle(double px1, double py1, double z1, double px2, double py2, double z2, 
+            double px3, double py3, double z3, int color) {
+        int vx1 = toSubpixel(px1), vy1 = toSubpixel(py1);
+        int vx2 = toSubpixel(px2), vy2 = toSubpixel(py2);
+        int vx3 = toSubpixel(px3), vy3 = toSubpixel(py3);
+        long area = (long)(vx2 - vx1)*(vy3 - vy1) - (long)(vx3 - vx1)*(vy2 - vy1);
+        if (area == 0) {
+            return;
+        }
+        if (area < 0) {
+            // Make the winding counter-clockwise, so the inside is left of every edge
+            int swapX = vx2, swapY = vy2;
+            double swapZ = z2;
+            vx2 = vx3; vy2 = vy3; z2 = z3;
+            vx3 = swapX; vy3 = swapY; z3 = swapZ;
+            area = -area;
+        }
+
+        // The pixels whose sample points, at the integer pixel coordinates, lie within
+        // the subpixel bounding box
+        int minCol = Math.max(ceilToPixel(Math.min(Math.min(vx1, vx2), vx3)), 0);
+        int maxCol = Math.min(Math.max(Math.max(vx1, vx2), vx3) >> SUBPIXEL_BITS, width - 1);
+        int minRow = Math.max(ceilToPixel(Math.min(Math.min(vy1, vy2), vy3)), 0);
+        int maxRow = Math.min(Math.max(Math.max(vy1, vy2), vy3) >> SUBPIXEL_BITS, height - 1);
+        if (minCol > maxCol || minRow > maxRow) {
+            return;
+        }
+
+        // The inverse depth as a plane over the pixels, z = base + dzdx*(col - minCol) 
+        // + dzdy*(row - minRow), which is linear, so it is largest in magnitude at a 
+        // corner of the bounding box
+        double dzdx = ((z2 - z1)*(vy3 - vy1) - (z3 - z1)*(vy2 - vy1))*SUBPIXEL_SCALE/area;
+        double dzdy = ((vx2 - vx1)*(z3 - z1) - (vx3 - vx1)*(z2 - z1))*SUBPIXEL_SCALE/area;
+        double base = z1 + (dzdx*((minCol << SUBPIXEL_BITS) - vx1) + dzdy*((minRow << SUBPIXEL_BITS) - vy1))/SUBPIXEL_SCALE;
+        double columnsDz = dzdx*(maxCol - minCol), rowsDz = dzdy*(maxRow - minRow);
+        double extent = Math.max(Math.max(Math.abs(base), Math.abs(base + columnsDz)),
+                Math.max(Math.abs(base + rowsDz), Math.abs(base + columnsDz + rowsDz)));
+        if (!(extent*DEPTH_SCALE < MAX_FIXED_DEPTH)) {
+            return;
+        }
+        if (triangleCount == colors.length) {
+            allocateTriangles(triangleCount*2);
+        }
+        int t = triangleCount++;
+        x1[t] = vx1; y1[t] = vy1;
+        x2[t] = vx2; y2[t] = vy2;
+        x3[t] = vx3; y3[t] = vy3;
+        colLo[t] = minCol; colHi[t] = maxCol;
+        rowLo[t] = minRow; rowHi[t] = maxRow;
+        depthBase[t] = Math.round(base*DEPTH_SCALE);
+        depthDx[t] = Math.round(dzdx*DEPTH_SCALE);
+        depthDy[t] = Math.round(dzdy*DEPTH_SCALE);
+        colors[t] = color;
+    }
+
+    /**
+     * Fills every triangle in the setup list, in order, on the calling thread
+     * @return the number of fragments depth tested
+     */
+    long fill() {
+        for (int t = 0; t < triangleCount; t++) {
+            int tileColLo = colLo[t]/TILE_SIZE;
+            int tileColHi = colHi[t]/TILE_SIZE;
+            int tileRowHi = rowHi[t]/TILE_SIZE;
+            for (int tileRow = rowLo[t]/TILE_SIZE; tileRow <= tileRowHi; tileRow++) {
+                for (int tileCol = tileColLo; tileCol <= tileColHi; tileCol++) {
+                    fillTriangle(t, tileRow*tileColumns + tileCol);
+                }
+            }
+        }
+        return sumFragmentCounts();
+    }
+
+    /**
+     * Bins every triangle in the setup list into the tiles its bounding box overlaps,
+     * then fills the tiles in parallel on the given pool
+     * @param pool The pool the tiles are filled on
+     * @return the number of fragments depth tested
+     */
+    long fillTiled(ForkJoinPool pool) {
+        binTriangles();
+        pool.invoke(new TileTask(0, tileColumns*tileRows));
+        return sumFragmentCounts();
+    }
+
+    /**
+     * Returns the number of triangles in the setup list
+     * @return the number of triangles in the setup list
+     */
+    int getTriangleCount() {
+        return triangleCount;
+    }
+
+    /**
+     * Returns the number of fragments rejected by the hierarchical depth buffer during 
+     * the last fill, without being depth tested
+     * @return the number of fragments culled in the last fill
+     */
+    long getCulledFragmentCount() {
+        return culledFragmentCount;
+    }
+
+    /**
+     * Returns the number of fragments that passed the depth test during the last fill,
+     * and were written
+     * @return the number of fragments written in the last fill
+     */
+    long getWrittenFragmentCount() {
+        return writtenFragmentCount;
+    }
+    private long sumFragmentCounts() {
+        long fragmentCount = 0;
+        culledFragmentCount = 0;
+        writtenFragmentCount = 0;
+        for (int i = 0; i < tileFragmentCounts.length; i++) {
+            fragmentCount += tileFragmentCounts[i];
+            culledFragmentCount += tileCulledFragmentCounts[i];
+            writtenFragmentCount += tileWrittenFragmentCounts[i];
+        }
+        return fragmentCount;
+    }
+    private void binTriangles() {
+        Arrays.fill(binSizes, 0);
+        for (int t = 0; t < triangleCount; t++) {
+            int tileColLo = colLo[t]/TILE_SIZE;
+            int tileColHi = colHi[t]/TILE_SIZE;
+            int tileRowHi = rowHi[t]/TILE_SIZE;
+            for (int tileRow = rowLo[t]/TILE_SIZE; tileRow <= tileRowHi; tileRow++) {
+                for (int tileCol = tileColLo; tileCol <= tileColHi; tileCol++) {
+                    int tile = tileRow*tileColumns + tileCol;
+                    if (binSizes[tile] == bins[tile].length) {
+                        bins[tile] = Arrays.copyOf(bins[tile], binSizes[tile]*2);
+                    }
+                    bins[tile][binSizes[tile]++] = t;
+                }
+            }
+        }
+    }
+    private void fillTile(int tile) {
+        int[] bin = bins[tile];
+        for (int i = 0; i < binSizes[tile]; i++) {
+            fillTriangle(bin[i], tile);
+        }
+    }
+
+    /**
+     * Fills the pixels of the given setup triangle lying within the given tile, adding to
+     * the fragment counts of the tile. The edge function of an edge from a to b,
+     * (b.x - a.x)*(y - a.y) - (b.y - a.y)*(x - a.x), is positive to the left of the edge,
+     * and is stepped by a constant from pixel to pixel. Pixels lying exactly on an edge 
+     * are only filled if it is a top or left edge, so pixels on an edge shared by two 
+     * triangles are filled exactly once. Both the edge functions and the fixed point
+     * depth are stepped in exact integer arithmetic, so their values at a pixel do not 
+     * depend on where the fill started, or on which thread filled it. Since both are 
+     * linear, their extremes over a block lie at its corners
+     */
+    private void fillTriangle(int t, int tile) {
+        int tileColLo = (tile%tileColumns)*TILE_SIZE;
+        int tileRowLo = (tile/tileColumns)*TILE_SIZE;
+        int tileColHi = Math.min(tileColLo + TILE_SIZE, width) - 1;
+        int tileRowHi = Math.min(tileRowLo + TILE_SIZE, height) - 1;
+        int startCol = Math.max(colLo[t], tileColLo);
+        int endCol = Math.min(colHi[t], tileColHi);
+        int startRow = Math.max(rowLo[t], tileRowLo);
+        int endRow = Math.min(rowHi[t], tileRowHi);
+        if (startCol > endCol || startRow > endRow) {
+            return;
+        }
+        long vx1 = x1[t], vy1 = y1[t];
+        long vx2 = x2[t], vy2 = y2[t];
+        long vx3 = x3[t], vy3 = y3[t];
+
+        // Per subpixel increments of the edge functions opposite each vertex along a 
+        // row (a) and a column (b)
+        long a1 = vy2 - vy3, b1 = vx3 - vx2;
+        long a2 = vy3 - vy1, b2 = vx1 - vx3;
+        long a3 = vy1 - vy2, b3 = vx2 - vx1;
+
+        // The edge functions at pixel (0, 0), excluding the pixels on edges that aren't 
+        // top or left edges, and their per pixel (dx) and per row (dy) increments
+        long w1Origin = -a1*vx2 - b1*vy2 + fillBias(a1, b1);
+        long w2Origin = -a2*vx3 - b2*vy3 + fillBias(a2, b2);
+        long w3Origin = -a3*vx1 - b3*vy1 + fillBias(a3, b3);
+        long w1Dx = a1 << SUBPIXEL_BITS, w1Dy = b1 << SUBPIXEL_BITS;
+        long w2Dx = a2 << SUBPIXEL_BITS, w2Dy = b2 << SUBPIXEL_BITS;
+        long w3Dx = a3 << SUBPIXEL_BITS, w3Dy = b3 << SUBPIXEL_BITS;
+        // The fixed point depth at pixel (0, 0), which may wrap around, but wraps back
+        // at every pixel of the bounding box, where the depth is within range
+        long zDx = depthDx[t], zDy = depthDy[t];
+        long zOrigin = depthBase[t] - zDx*colLo[t] - zDy*rowLo[t];
+        int color = colors[t];
+        boolean isTriangleCulled = false;
+        if (isHiZEnabled) {
+            long zLoLo = zDx*startCol + zDy*startRow + zOrigin;
+            long zHiLo = zLoLo + zDx*(endCol - startCol), zLoHi = zLoLo + zDy*(endRow - startRow);
+            long zHiHi = zHiLo + zDy*(endRow - startRow);
+            isTriangleCulled = toDepth(Math.max(Math.max(zLoLo, zHiLo), Math.max(zLoHi, zHiHi))) < tileFarthestDepths[tile];
+        }
+        boolean isTileRaised = false;
+        long fragmentCount = 0;
+        long culledCount = 0;
+        long writtenCount = 0;
+        for (int blockRow = startRow/BLOCK_SIZE; blockRow <= endRow/BLOCK_SIZE; blockRow++) {
+            int blockRowLo = Math.max(blockRow*BLOCK_SIZE, startRow);
+            int blockRowHi = Math.min(blockRow*BLOCK_SIZE + BLOCK_SIZE - 1, endRow);
+            for (int blockCol = startCol/BLOCK_SIZE; blockCol <= endCol/BLOCK_SIZE; blockCol++) {
+                int blockColLo = Math.max(blockCol*BLOCK_SIZE, startCol);
+                int blockColHi = Math.min(blockCol*BLOCK_SIZE + BLOCK_SIZE - 1, endCol);
+                int columns = blockColHi - blockColLo, rows = blockRowHi - blockRowLo;
+
+                // Edge functions at the corners of the block, which is skipped if it 
+                // lies entirely outside any edge
+                long w1LoLo = w1Dx*blockColLo + w1Dy*blockRowLo + w1Origin;
+                long w1HiLo = w1LoLo + w1Dx*columns, w1LoHi = w1LoLo + w1Dy*rows, w1HiHi = w1HiLo + w1Dy*rows;
+                long w2LoLo = w2Dx*blockColLo + w2Dy*blockRowLo + w2Origin;
+                long w2HiLo = w2LoLo + w2Dx*columns, w2LoHi = w2LoLo + w2Dy*rows, w2HiHi = w2HiLo + w2Dy*rows;
+                long w3LoLo = w3Dx*blockColLo + w3Dy*blockRowLo + w3Origin;
+                long w3HiLo = w3LoLo + w3Dx*columns, w3LoHi = w3LoLo + w3Dy*rows, w3HiHi = w3HiLo + w3Dy*rows;
+                if ((w1LoLo & w1HiLo & w1LoHi & w1HiHi) < 0
+                        || (w2LoLo & w2HiLo & w2LoHi & w2HiHi) < 0
+                        || (w3LoLo & w3HiLo & w3LoHi & w3HiHi) < 0) {
+                    continue;
+                }
+                boolean isCovered = (w1LoLo | w1HiLo | w1LoHi | w1HiHi
+                                   | w2LoLo | w2HiLo | w2LoHi | w2HiHi
+                                   | w3LoLo | w3HiLo | w3LoHi | w3HiHi) >= 0;
+                int block = blockRow*blockColumns + blockCol;
+                long zLoLo = zDx*blockColLo + zDy*blockRowLo + zOrigin;
+                boolean isCulled = isTriangleCulled;
+                long farthestZ = 0;
+                if (isHiZEnabled && !isCulled) {
+                    long zHiLo = zLoLo + zDx*columns, zLoHi = zLoLo + zDy*rows, zHiHi = zHiLo + zDy*rows;
+                    long nearestZ = Math.max(Math.max(zLoLo, zHiLo), Math.max(zLoHi, zHiHi));
+                    farthestZ = Math.min(Math.min(zLoLo, zHiLo), Math.min(zLoHi, zHiHi));
+                    isCulled = toDepth(nearestZ) < blockFarthestDepths[block];
+                }
+                if (isCulled && isCovered) {
+                    culledCount += (columns + 1)*(rows + 1);
+                    continue;
+                }
+                for (int i = blockRowLo; i <= blockRowHi; i++) {
+                    int depthRow = i*width;
+                    int frameBufferRow = (height-1-i)*width;
+                    long w1 = w1LoLo + w1Dy*(i - blockRowLo);
+                    long w2 = w2LoLo + w2Dy*(i - blockRowLo);
+                    long w3 = w3LoLo + w3Dy*(i - blockRowLo);
+                    long z = zLoLo + zDy*(i - blockRowLo);
+                    for (int j = blockColLo; j <= blockColHi; j++) {
+                        if ((w1 | w2 | w3) >= 0) {
+                            if (isCulled) {
+                                culledCount++;
+                            } else {
+                                fragmentCount++;
+                                if (depthBuffer.testAndSet(depthRow + j, toDepth(z))) {
+                                    frameBuffer[frameBufferRow + j] = color;
+                                    writtenCount++;
+                                }
+                            }
+                        }
+                        w1 += w1Dx;
+                        w2 += w2Dx;
+                        w3 += w3Dx;
+                        z += zDx;
+                    }
+                }
+
+                // Every pixel of a covered block now holds a depth at least as near as 
+                // the farthest depth of the triangle over it
+                if (isHiZEnabled && !isCulled && isCovered && isWholeBlock(blockColLo, blockColHi, blockRowLo, blockRowHi)) {
+                    float blockFarthestDepth = toDepth(farthestZ);
+                    if (blockFarthestDepth > blockFarthestDepths[block]) {
+                        blockFarthestDepths[block] = blockFarthestDepth;
+                        isTileRaised = true;
+                    }
+                }
+            }
+        }
+        if (isTileRaised) {
+            updateTileFarthestDepth(tile);
+        }
+        tileFragmentCounts[tile] += fragmentCount;
+        tileCulledFragmentCounts[tile] += culledCount;
+        tileWrittenFragmentCounts[tile] += writtenCount;
+    }
+
+    /**
+     * Returns true if the given rectangle spans every on screen pixel of its block
+     */
+    private boolean isWholeBlock(int blockColLo, int blockColHi, int blockRowLo, int blockRowHi) {
+        return blockColLo%BLOCK_SIZE == 0 && blockRowLo%BLOCK_SIZE == 0
+                && (blockColHi - blockColLo == BLOCK_SIZE - 1 || blockColHi == width - 1)
+                && (blockRowHi - blockRowLo == BLOCK_SIZE - 1 || blockRowHi == height - 1);
+    }
+
+    /**
+     * Sets the farthest depth of the given tile to the farthest depth of its blocks
+     */
+    private void updateTileFarthestDepth(int tile) {
+        int blockColLo = (tile%tileColumns)*BLOCKS_PER_TILE;
+        int blockRowLo = (tile/tileColumns)*BLOCKS_PER_TILE;
+        int blockColHi = Math.min(blockColLo + BLOCKS_PER_TILE, blockColumns);
+        int blockRowHi = Math.min(blockRowLo + BLOCKS_PER_TILE, blockFarthestDepths.length/blockColumns);
+        float farthestDepth = Float.POSITIVE_INFINITY;
+        for (int blockRow = blockRowLo; blockRow < blockRowHi; blockRow++) {
+            for (int blockCol = blockColLo; blockCol < blockColHi; blockCol++) {
+                farthestDepth = Math.min(farthestDepth, blockFarthestDepths[blockRow*blockColumns + blockCol]);
+            }
+        }
+        tileFarthestDepths[tile] = farthestDepth;
+    }
+
+    /**
+     * Returns 0 for a top or left edge of a counter-clockwise triangle, otherwise -1.
+     * With the screen y axis pointing up, an edge is a top edge if it runs in the
+     * negative x direction along a row, and a left edge if it runs downwards
+     * @param a The per pixel increment of the edges function, the negated y extent of the edge
+     * @param b The per row increment of the edges function, the x extent of the edge
+     */
+    static int fillBias(long a, long b) {
+        boolean isTopLeft = (a == 0 && b < 0) || a > 0;
+        return isTopLeft? 0 : -1;
+    }
+
+    /**
+     * Returns the given pixelspace coordinate snapped to the nearest subpixel
+     */
+    static int toSubpixel(double coordinate) {
+        return (int)Math.floor(coordinate*SUBPIXEL_SCALE + 0.5);
+    }
+
+    /**
+     * Returns the first pixel at or after the given subpixel coordinate
+     */
+    static int ceilToPixel(int subpixel) {
+        return (subpixel + SUBPIXEL_SCALE - 1) >> SUBPIXEL_BITS;
+    }
+
+    /**
+     * Returns the inverse depth of the given fixed point depth. The conversion is 
+     * monotonic, so the order of fixed point depths carries over to the depth buffer
+     */
+    private static float toDepth(long z) {
+        return (float)(z*DEPTH_UNIT);
+    }
+    private void allocateTriangles(int capacity) {
+        x1 = grow(x1, capacity); y1 = grow(y1, capacity);
+        x2 = grow(x2, capacity); y2 = grow(y2, capacity);
+        x3 = grow(x3, capacity); y3 = grow(y3, capacity);
+        colLo = grow(colLo, capacity); colHi = grow(colHi, capacity);
+        rowLo = grow(rowLo, capacity); rowHi = grow(rowHi, capacity);
+        depthBase = grow(depthBase, capacity);
+        depthDx = grow(depthDx, capacity);
+        depthDy = grow(depthDy, capacity);
+        colors = grow(colors, capacity);
+    }
+    private static int[] grow(int[] array, int capacity) {
+        return (array == null)? new int[capacity] : Arrays.copyOf(array, capacity);
+    }
+    private static long[] grow(long[] array, int capacity) {
+        return (array == null)? new long[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    /**
+     * Fills a range of tiles, splitting it in half until it is small enough
+     */
+    private class TileTask extends RecursiveAction {
+        private final int tileLo;
+        private final int tileHi;
+
+        TileTask(int tileLo, int tileHi) {
+            this.tileLo = tileLo;
+            this.tileHi = tileHi;
+        }
+        @Override
+        protected void compute() {
+            if (tileHi - tileLo <= TILES_PER_TASK) {
+                for (int tile = tileLo; tile < tileHi; tile++) {
+                    fillTile(tile);
+                }
+            } else {
+                int tileMid = (tileLo + tileHi) >>> 1;
+                invokeAll(new TileTask(tileLo, tileMid), new TileTask(tileMid, tileHi));
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package viewer3D.GraphicsEngine;
+
+import java.util.Arrays;
+
+/**
+ * A depth buffer storing the inverse view space depth of each pixel as a 24-bit fixed
+ * point fraction of the inverse depth of the near plane, with larger values nearer; 
+ * depths nearer than the near plane saturate. The remaining 7 bits below the sign bit
+ * hold the frame generation the entry was written in, so as with StampedDepthBuffer 
+ * one int comparison tests both the generation and the depth, and the entries are 
+ * only reset once every 127 clears
+ * @author Arik Dicks
+ */
+class FixedDepthBuffer extends DepthBuffer {
+    private static final int DEPTH_BITS = 24;
+    private static final int DEPTH_MASK = (1 << DEPTH_BITS) - 1;
+    private static final int GENERATION_INCREMENT = 1 << DEPTH_BITS;
+    private static final int MAX_GENERATION = 127 << DEPTH_BITS;
+    private final int[] entries;
+    private final float nearDistance;
+    private int generation;
+
+    FixedDepthBuffer(int width, int height, double nearDistance) {
+        super(width, height);
+        this.nearDistance = (float)nearDistance;
+        entries = new int[width*height];
+        generation = GENERATION_INCREMENT;
+    }
+    @Override
+    public void clear() {
+        if (generation == MAX_GENERATION) {
+            Arrays.fill(entries, 0);
+            generation = 0;
+        }
+        generation += GENERATION_INCREMENT;
+    }
+    @Override
+    public boolean testAndSet(int index, float depth) {
+        float fraction = depth*nearDistance;
+        int fixedDepth = (fraction >= 1)? DEPTH_MASK : (int)(fraction*DEPTH_MASK);
+        int entry = generation | fixedDepth;
+        if (fixedDepth > 0 && entry > entries[index]) {
+            entries[index] = entry;
+            return true;
+        }
+        return false;
+    }
+    @Override
+    public float getDepth(int index) {
+        int entry = entries[index];
+        return ((entry & ~DEPTH_MASK) == generation)? (entry & DEPTH_MASK)/(DEPTH_MASK*nearDistance) : 0;
+    }
+    @Override
+    public DepthFormat getFormat() {
+        return DepthFormat.FIXED_24;
+    }
+    @Override
+    public int getBytesPerPixel() {
+        return 4;
+    }
+}
@@ -0,0 +1,43 @@
+package viewer3D.GraphicsEngine;
+
+import java.util.Arrays;
+
+/**
+ * A depth buffer storing the view space depth z of each pixel as a float, with 
+ * smaller values nearer. Empty entries hold positive infinity
+ * @author Arik Dicks
+ */
+class FloatDepthBuffer extends DepthBuffer {
+    private final float[] entries;
+
+    FloatDepthBuffer(int width, int height) {
+        super(width, height);
+        entries = new float[width*height];
+        clear();
+    }
+    @Override
+    public void clear() {
+        Arrays.fill(entries, Float.POSITIVE_INFINITY);
+    }
+    @Override
+    public boolean testAndSet(int index, float depth) {
+        float z = 1/depth;
+        if (depth > 0 && z < entries[index]) {
+            entries[index] = z;
+            return true;
+        }
+        return false;
+    }
+    @Override
+    public float getDepth(int index) {
+        return 1/entries[index];
+    }
+    @Override
+    public DepthFormat getFormat() {
+        return DepthFormat.FLOAT;
+    }
+    @Override
+    public int getBytesPerPixel() {
+        return 4;
+    }
+}
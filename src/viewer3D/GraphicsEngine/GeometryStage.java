@@ -0,0 +1,267 @@
+package viewer3D.GraphicsEngine;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import viewer3D.Math.Frustum;
+import viewer3D.Math.Mat4;
+import viewer3D.Math.Vec3;
+
+/**
+ * Transforms the vertices of a mesh buffer into view space, projects them onto the
+ * camera plane, and back-face tests its triangles, producing the list of triangles
+ * facing the camera in draw order. Objects whose bounding volume lies outside the view
+ * frustum are culled first, and their vertices and triangles are skipped. Every vertex
+ * gets the clip code of its side of the near and far planes; triangles lying entirely
+ * outside either plane are culled, and those straddling one are left for the camera to
+ * clip, their vertices outside it having no meaningful projection. Vertices and
+ * triangles are processed in fixed size chunks, which run in parallel on a ForkJoinPool
+ * when there is more than one. Each chunk writes only its own slots of the preallocated
+ * outputs; the facing triangles are compacted with a blocked prefix sum, in which every
+ * chunk counts its survivors, the counts are scanned into offsets, and every chunk then
+ * writes its survivors from its offset
+ * @author Arik Dicks
+ */
+class GeometryStage {
+    static final int CHUNK_SIZE = 8192;
+    private static final int TRANSFORM = 0;
+    private static final int CULL = 1;
+    private static final int COMPACT = 2;
+    // Sort keys are the top 16 bits of the float bits of a depth, a sign bit, 8 bits
+    // of exponent and 7 of mantissa, sorted 8 bits per pass
+    private static final int SORT_KEY_SHIFT = 15;
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private final MeshBuffer mesh;
+    final double[] viewX;
+    final double[] viewY;
+    final double[] viewZ;
+    final double[] projectedX;
+    final double[] projectedY;
+    final byte[] clipCodes;
+    final int[] visibleTriangles;
+    int visibleTriangleCount;
+    private final boolean[] isTriangleVisible;
+    private final int[] chunkOffsets;
+    private final boolean[] isObjectVisible;
+    int visibleObjectCount;
+    // Working storage of the front to back sort, allocated on its first use
+    private int[] sortKeys;
+    private int[] scratchKeys;
+    private int[] scratchTriangles;
+    private final int[] radixCounts;
+    private Mat4 viewMatrix;
+    private double cameraX;
+    private double cameraY;
+    private double cameraZ;
+    private double near;
+    private double far;
+
+    /**
+     * Constructs the working storage for processing the given mesh buffer
+     * @param mesh A mesh buffer
+     */
+    GeometryStage(MeshBuffer mesh) {
+        this.mesh = mesh;
+        viewX = new double[mesh.vertexCount];
+        viewY = new double[mesh.vertexCount];
+        viewZ = new double[mesh.vertexCount];
+        projectedX = new double[mesh.vertexCount];
+        projectedY = new double[mesh.vertexCount];
+        clipCodes = new byte[mesh.vertexCount];
+        visibleTriangles = new int[mesh.triangleCount];
+        isTriangleVisible = new boolean[mesh.triangleCount];
+        chunkOffsets = new int[getChunkCount(mesh.triangleCount)];
+        isObjectVisible = new boolean[mesh.objectCount];
+        radixCounts = new int[RADIX];
+    }
+
+    /**
+     * Culls the objects outside the given frustum, transforms and projects the vertices
+     * of the rest, then collects their triangles facing the camera
+     * @param viewMatrix The world to view transform
+     * @param cameraPosition The position of the camera in world space
+     * @param frustum The view frustum of the camera, in world space
+     * @param near The view space depth of the near plane, which must be positive
+     * @param far The view space depth of the far plane, which may be infinite
+     * @param pool The pool chunks are run on when there is more than one
+     */
+    void run(Mat4 viewMatrix, Vec3 cameraPosition, Frustum frustum, double near, double far, ForkJoinPool pool) {
+        this.near = near;
+        this.far = far;
+        visibleObjectCount = 0;
+        for (int i = 0; i < mesh.objectCount; i++) {
+            isObjectVisible[i] = frustum.intersects(mesh.getBounds(i));
+            if (isObjectVisible[i]) {
+                visibleObjectCount++;
+            }
+        }
+        this.viewMatrix = viewMatrix;
+        cameraX = cameraPosition.x;
+        cameraY = cameraPosition.y;
+        cameraZ = cameraPosition.z;
+        runChunks(TRANSFORM, getChunkCount(mesh.vertexCount), pool);
+        runChunks(CULL, chunkOffsets.length, pool);
+
+        // Exclusive scan of the per chunk survivor counts into output offsets
+        int total = 0;
+        for (int i = 0; i < chunkOffsets.length; i++) {
+            int count = chunkOffsets[i];
+            chunkOffsets[i] = total;
+            total += count;
+        }
+        visibleTriangleCount = total;
+        runChunks(COMPACT, chunkOffsets.length, pool);
+    }
+    /**
+     * Reorders the visible triangles front to back by the depth of their nearest vertex,
+     * with a stable least significant digit radix sort. The float bits of a positive
+     * depth are in the same order as the depth, so their top bits quantize it to
+     * within 1% of its value in a 16 bit key, sorted in two passes; triangles with
+     * equal keys keep their draw order. Vertices in front of the near plane count as
+     * depth 0
+     */
+    void sortFrontToBack() {
+        if (sortKeys == null) {
+            sortKeys = new int[mesh.triangleCount];
+            scratchKeys = new int[mesh.triangleCount];
+            scratchTriangles = new int[mesh.triangleCount];
+        }
+        int[] indices = mesh.indices;
+        for (int i = 0; i < visibleTriangleCount; i++) {
+            int t = visibleTriangles[i];
+            double nearestZ = Math.min(Math.min(viewZ[indices[t*3]], viewZ[indices[t*3 + 1]]), viewZ[indices[t*3 + 2]]);
+            sortKeys[i] = Float.floatToRawIntBits((float)Math.max(nearestZ, 0)) >>> SORT_KEY_SHIFT;
+        }
+        radixPass(sortKeys, visibleTriangles, scratchKeys, scratchTriangles, 0);
+        radixPass(scratchKeys, scratchTriangles, sortKeys, visibleTriangles, RADIX_BITS);
+    }
+
+    /**
+     * Scatters the visible triangles into the output arrays in the order of the digit 
+     * of their keys at the given shift, keeping the order of triangles with equal digits
+     */
+    private void radixPass(int[] keys, int[] triangles, int[] sortedKeys, int[] sortedTriangles, int shift) {
+        Arrays.fill(radixCounts, 0);
+        for (int i = 0; i < visibleTriangleCount; i++) {
+            radixCounts[(keys[i] >>> shift) & (RADIX - 1)]++;
+        }
+        int total = 0;
+        for (int digit = 0; digit < RADIX; digit++) {
+            int count = radixCounts[digit];
+            radixCounts[digit] = total;
+            total += count;
+        }
+        for (int i = 0; i < visibleTriangleCount; i++) {
+            int j = radixCounts[(keys[i] >>> shift) & (RADIX - 1)]++;
+            sortedKeys[j] = keys[i];
+            sortedTriangles[j] = triangles[i];
+        }
+    }
+    private void runChunks(int phase, int chunkCount, ForkJoinPool pool) {
+        if (chunkCount == 1) {
+            runChunk(phase, 0);
+        } else if (chunkCount > 1) {
+            pool.invoke(new ChunkTask(phase, 0, chunkCount));
+        }
+    }
+    private void runChunk(int phase, int chunk) {
+        switch (phase) {
+            case TRANSFORM:
+                transformVisibleVertices(chunk*CHUNK_SIZE, Math.min((chunk + 1)*CHUNK_SIZE, mesh.vertexCount));
+                break;
+            case CULL:
+                chunkOffsets[chunk] = cullVisibleTriangles(chunk*CHUNK_SIZE, Math.min((chunk + 1)*CHUNK_SIZE, mesh.triangleCount));
+                break;
+            default:
+                compactTriangles(chunk*CHUNK_SIZE, Math.min((chunk + 1)*CHUNK_SIZE, mesh.triangleCount), chunkOffsets[chunk]);
+        }
+    }
+    private void transformVisibleVertices(int start, int end) {
+        for (int i = mesh.getObjectOfVertex(start); i < mesh.objectCount && mesh.objectVertexStarts[i] < end; i++) {
+            if (isObjectVisible[i]) {
+                transformVertices(Math.max(start, mesh.objectVertexStarts[i]), Math.min(end, mesh.objectVertexStarts[i + 1]));
+            }
+        }
+    }
+    private int cullVisibleTriangles(int start, int end) {
+        int count = 0;
+        for (int i = mesh.getObjectOfTriangle(start); i < mesh.objectCount && mesh.objectTriangleStarts[i] < end; i++) {
+            int objectStart = Math.max(start, mesh.objectTriangleStarts[i]);
+            int objectEnd = Math.min(end, mesh.objectTriangleStarts[i + 1]);
+            if (isObjectVisible[i]) {
+                count += cullTriangles(objectStart, objectEnd);
+            } else {
+                for (int j = objectStart; j < objectEnd; j++) {
+                    isTriangleVisible[j] = false;
+                }
+            }
+        }
+        return count;
+    }
+    private void transformVertices(int start, int end) {
+        // Transform into view space
+        viewMatrix.transformBatch(mesh.x, mesh.y, mesh.z, viewX, viewY, viewZ, start, end - start);
+
+        // Classify against the near and far planes, and project onto the camera plane (z = 1)
+        for (int i = start; i < end; i++) {
+            double z = viewZ[i];
+            clipCodes[i] = (byte)TriangleClipper.getClipCode(z, near, far);
+            projectedX[i] = viewX[i]/z;
+            projectedY[i] = viewY[i]/z;
+        }
+    }
+
+    /**
+     * Back-face tests the given range of triangles against their world space planes,
+     * and culls those whose vertices all lie outside the same clipping plane
+     * @return the number of triangles in the range facing the camera
+     */
+    private int cullTriangles(int start, int end) {
+        int[] indices = mesh.indices;
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            double dotProduct = mesh.planeD[i] - (mesh.normalX[i]*cameraX + mesh.normalY[i]*cameraY + mesh.normalZ[i]*cameraZ);
+            int outsideCode = clipCodes[indices[i*3]] & clipCodes[indices[i*3 + 1]] & clipCodes[indices[i*3 + 2]];
+            isTriangleVisible[i] = dotProduct < 0 && outsideCode == 0;
+            if (isTriangleVisible[i]) {
+                count++;
+            }
+        }
+        return count;
+    }
+    private void compactTriangles(int start, int end, int offset) {
+        for (int i = start; i < end; i++) {
+            if (isTriangleVisible[i]) {
+                visibleTriangles[offset++] = i;
+            }
+        }
+    }
+    private static int getChunkCount(int count) {
+        return (count + CHUNK_SIZE - 1)/CHUNK_SIZE;
+    }
+
+    /**
+     * Runs a phase over a range of chunks, splitting it in half until one chunk is left
+     */
+    private class ChunkTask extends RecursiveAction {
+        private final int phase;
+        private final int chunkLo;
+        private final int chunkHi;
+
+        ChunkTask(int phase, int chunkLo, int chunkHi) {
+            this.phase = phase;
+            this.chunkLo = chunkLo;
+            this.chunkHi = chunkHi;
+        }
+        @Override
+        protected void compute() {
+            if (chunkHi - chunkLo == 1) {
+                runChunk(phase, chunkLo);
+            } else {
+                int chunkMid = (chunkLo + chunkHi) >>> 1;
+                invokeAll(new ChunkTask(phase, chunkLo, chunkMid), new ChunkTask(phase, chunkMid, chunkHi));
+            }
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package viewer3D.GraphicsEngine;
+
+import viewer3D.Math.BoundingVolume;
+import viewer3D.Math.Plane;
+import viewer3D.Math.Vec3;
+import viewer3D.Math.Vector;
+import viewer3D.Polyhedrons.Polyhedron;
+
+/**
+ * The triangles of a set of polygons stored as a structure of arrays: vertex
+ * positions are held in contiguous x, y and z arrays, and each triangle is three
+ * consecutive entries of an index array into them. Built from polyhedrons, the buffer
+ * holds each vertex shared between their polygons once, so it is transformed once per
+ * frame however many triangles use it; vertices shared this way must be moved in place,
+ * and every polygon using them marked as changed. The plane of every triangle is
+ * stored alongside so that back-face tests need no per-polygon object access. 
+ * The triangles are grouped into objects, one per polyhedron, each a contiguous range
+ * of triangles with a bounding volume, so whole objects can be culled at once.
+ * Triangles whose polygon has changed since they were copied are recopied by sync(),
+ * and the bounds of their objects recomputed
+ * @author Arik Dicks
+ */
+public class MeshBuffer {
+    final Polygon[] polygons;
+    final double[] x;
+    final double[] y;
+    final double[] z;
+    final int[] indices;
+    final double[] normalX;
+    final double[] normalY;
+    final double[] normalZ;
+    final double[] planeD;
+    private final int[] polygonVersions;
+    final int vertexCount;
+    final int triangleCount;
+    final int objectCount;
+    // The first triangle and vertex of each object, followed by the total counts
+    final int[] objectTriangleStarts;
+    final int[] objectVertexStarts;
+    private final BoundingVolume[] objectBounds;
+
+    /**
+     * Constructs a buffer holding the vertices of the given polygons as a single 
+     * object, each polygon becoming one triangle with three vertices of its own
+     * @param polygons A set of triangular polygons
+     */
+    public MeshBuffer(Polygon[] polygons) {
+        this(polygons, new int[]{0, polygons.length}, new int[]{0, polygons.length*3}, getIdentityIndices(polygons.length), null);
+    }
+
+    /**
+     * Constructs a buffer holding the shared vertices of the given polyhedrons, each 
+     * polyhedron becoming one object bounded by its bounding volume
+     * @param polyhedrons A set of polyhedrons made of triangular polygons
+     */
+    public MeshBuffer(Polyhedron[] polyhedrons) {
+        this(polyhedrons, getTriangleStarts(polyhedrons), getVertexStarts(polyhedrons));
+    }
+    private MeshBuffer(Polyhedron[] polyhedrons, int[] objectTriangleStarts, int[] objectVertexStarts) {
+        this(getPolygons(polyhedrons, objectTriangleStarts), objectTriangleStarts, objectVertexStarts, 
+                getIndices(polyhedrons, objectTriangleStarts, objectVertexStarts), getBounds(polyhedrons));
+    }
+    private MeshBuffer(Polygon[] polygons, int[] objectTriangleStarts, int[] objectVertexStarts, int[] indices, BoundingVolume[] bounds) {
+        this.polygons = polygons;
+        this.indices = indices;
+        triangleCount = polygons.length;
+        vertexCount = objectVertexStarts[objectVertexStarts.length - 1];
+        x = new double[vertexCount];
+        y = new double[vertexCount];
+        z = new double[vertexCount];
+        normalX = new double[triangleCount];
+        normalY = new double[triangleCount];
+        normalZ = new double[triangleCount];
+        planeD = new double[triangleCount];
+        polygonVersions = new int[triangleCount];
+        for (int i = 0; i < triangleCount; i++) {
+            copyTriangle(i);
+        }
+        this.objectTriangleStarts = objectTriangleStarts;
+        this.objectVertexStarts = objectVertexStarts;
+        objectCount = objectTriangleStarts.length - 1;
+        objectBounds = new BoundingVolume[objectCount];
+        for (int i = 0; i < objectCount; i++) {
+            objectBounds[i] = (bounds == null)? computeBounds(i, new BoundingVolume()) : new BoundingVolume(bounds[i]);
+        }
+    }
+
+    /**
+     * Recopies the vertices and plane of every triangle whose polygon has changed
+     * since it was last copied
+     * @return true if any triangle was recopied
+     */
+    public boolean sync() {
+        boolean isChanged = false;
+        for (int object = 0; object < objectCount; object++) {
+            boolean isObjectChanged = false;
+            for (int i = objectTriangleStarts[object]; i < objectTriangleStarts[object + 1]; i++) {
+                if (polygonVersions[i] != polygons[i].getVersion()) {
+                    copyTriangle(i);
+                    isObjectChanged = true;
+                }
+            }
+            if (isObjectChanged) {
+                computeBounds(object, objectBounds[object]);
+                isChanged = true;
+            }
+        }
+        return isChanged;
+    }
+
+    /**
+     * Returns the number of vertices in this buffer
+     * @return the number of vertices in this buffer
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Returns the number of triangles in this buffer
+     * @return the number of triangles in this buffer
+     */
+    public int getTriangleCount() {
+        return triangleCount;
+    }
+
+    /**
+     * Returns the number of objects in this buffer
+     * @return the number of objects in this buffer
+     */
+    public int getObjectCount() {
+        return objectCount;
+    }
+
+    /**
+     * Returns the bounding volume of the given object
+     * @param objectIndex The index of an object
+     * @return the bounding volume of the given object
+     */
+    public BoundingVolume getBounds(int objectIndex) {
+        return objectBounds[objectIndex];
+    }
+
+    /**
+     * Returns the index of the object the given vertex belongs to
+     * @param vertexIndex The index of a vertex
+     * @return the index of the object the given vertex belongs to
+     */
+    int getObjectOfVertex(int vertexIndex) {
+        return findRange(objectVertexStarts, vertexIndex);
+    }
+
+    /**
+     * Returns the index of the object the given triangle belongs to
+     * @param triangleIndex The index of a triangle
+     * @return the index of the object the given triangle belongs to
+     */
+    int getObjectOfTriangle(int triangleIndex) {
+        return findRange(objectTriangleStarts, triangleIndex);
+    }
+
+    /**
+     * Returns the polygon the given triangle was built from
+     * @param triangleIndex The index of a triangle
+     * @return the polygon the given triangle was built from
+     */
+    public Polygon getPolygon(int triangleIndex) {
+        return polygons[triangleIndex];
+    }
+
+    /**
+     * Returns the polygons this buffer was built from
+     * @return the polygons this buffer was built from
+     */
+    public Polygon[] getPolygons() {
+        return polygons;
+    }
+    private BoundingVolume computeBounds(int objectIndex, BoundingVolume out) {
+        return out.set(x, y, z, objectVertexStarts[objectIndex], objectVertexStarts[objectIndex + 1]);
+    }
+
+    /**
+     * Returns the last range whose start is at or before the given index, skipping
+     * past empty ranges
+     */
+    private int findRange(int[] starts, int index) {
+        int lo = 0, hi = starts.length - 2;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (starts[mid] <= index) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+    private static Polygon[] getPolygons(Polyhedron[] polyhedrons, int[] triangleStarts) {
+        Polygon[] polygons = new Polygon[triangleStarts[polyhedrons.length]];
+        for (int i = 0; i < polyhedrons.length; i++) {
+            Polygon[] shapePolygons = polyhedrons[i].getPolygons();
+            System.arraycopy(shapePolygons, 0, polygons, triangleStarts[i], shapePolygons.length);
+        }
+        return polygons;
+    }
+    private static int[] getTriangleStarts(Polyhedron[] polyhedrons) {
+        int[] triangleStarts = new int[polyhedrons.length + 1];
+        for (int i = 0; i < polyhedrons.length; i++) {
+            triangleStarts[i + 1] = triangleStarts[i] + polyhedrons[i].getPolygons().length;
+        }
+        return triangleStarts;
+    }
+    private static int[] getVertexStarts(Polyhedron[] polyhedrons) {
+        int[] vertexStarts = new int[polyhedrons.length + 1];
+        for (int i = 0; i < polyhedrons.length; i++) {
+            vertexStarts[i + 1] = vertexStarts[i] + polyhedrons[i].getVertices().length;
+        }
+        return vertexStarts;
+    }
+
+    /**
+     * Returns the indices of every polyhedron, offset by the first vertex of its object
+     */
+    private static int[] getIndices(Polyhedron[] polyhedrons, int[] triangleStarts, int[] vertexStarts) {
+        int[] indices = new int[triangleStarts[polyhedrons.length]*3];
+        for (int i = 0; i < polyhedrons.length; i++) {
+            int[] shapeIndices = polyhedrons[i].getIndices();
+            for (int j = 0; j < shapeIndices.length; j++) {
+                indices[triangleStarts[i]*3 + j] = shapeIndices[j] + vertexStarts[i];
+            }
+        }
+        return indices;
+    }
+    private static int[] getIdentityIndices(int triangleCount) {
+        int[] indices = new int[triangleCount*3];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+    private static BoundingVolume[] getBounds(Polyhedron[] polyhedrons) {
+        BoundingVolume[] bounds = new BoundingVolume[polyhedrons.length];
+        for (int i = 0; i < polyhedrons.length; i++) {
+            bounds[i] = polyhedrons[i].getBounds();
+        }
+        return bounds;
+    }
+    private void copyTriangle(int triangleIndex) {
+        Polygon polygon = polygons[triangleIndex];
+        for (int j = 0; j < 3; j++) {
+            int vertexIndex = indices[triangleIndex*3 + j];
+            Vector vertex = polygon.getVertex(j);
+            x[vertexIndex] = vertex.getComponent(0);
+            y[vertexIndex] = vertex.getComponent(1);
+            z[vertexIndex] = vertex.getComponent(2);
+        }
+        Plane plane = polygon.getPlane();
+        Vec3 normal = plane.getNormal();
+        normalX[triangleIndex] = normal.x;
+        normalY[triangleIndex] = normal.y;
+        normalZ[triangleIndex] = normal.z;
+        planeD[triangleIndex] = plane.getD();
+        polygonVersions[triangleIndex] = polygon.getVersion();
+    }
+}
@@ -3,16 +3,20 @@ package viewer3D.GraphicsEngine;
 import viewer3D.Math.Vector;
 import java.awt.Color;
 import viewer3D.Math.Plane;
+import viewer3D.Math.Vec3;
 
 /**
  * A collection of vectors specifying a 3 dimensional polygon, as well as a shape 
- * and polygon ID, and face/edge/selection colors
+ * and polygon ID, and face/edge/selection colors. The plane and bounds of the polygon
+ * are derived from its vertices lazily, on the first access after the vertices change
  * @author Arik Dicks
  */
 public class Polygon {
     private Vector[] vertices;
-    private Vector normal;
     private Plane plane;
+    private double[] xyBounds;
+    private boolean isGeometryStale;
+    private int version;
     private boolean selected;
     private boolean isVisible;
     private static Color selectionColor = Color.RED;
@@ -28,7 +32,7 @@ public class Polygon {
     public Polygon(Vector[] vectorArray) {
         isVisible = false;
         vertices = vectorArray;
-        plane = new Plane(vertices[0], calcNormal());
+        isGeometryStale = true;
     }
     /**
      * Constructs a polygon with vertices corresponding to the given vector array, 
@@ -40,7 +44,7 @@ public class Polygon {
         isVisible = false;
         vertices = vectorArray;  
         this.polygonID = polygonID;
-        plane = new Plane(vertices[0], calcNormal());
+        isGeometryStale = true;
     }
     /**
      * Sets the vertex at the given index to be the given vector
@@ -49,6 +53,7 @@ public class Polygon {
      */
     public void setVertex(Vector vertex, int index) {
         vertices[index] = vertex;
+        markVerticesChanged();
     }
     /**
      * Sets the vertices of the polygon to be the vectors in the given vector array
@@ -56,6 +61,7 @@ public class Polygon {
      */
     public void setVertices(Vector[] vectorArray) {
         vertices = vectorArray;
+        markVerticesChanged();
     }
     /**
      * Sets the vertices of the polygon to be the coordinates in the given double arrays
@@ -67,6 +73,7 @@ public class Polygon {
         vertices[0] = new Vector(vectorArray1);
         vertices[1] = new Vector(vectorArray2);
         vertices[2] = new Vector(vectorArray3);
+        markVerticesChanged();
     }
     /**
      * Sets the vertices of the polygon to be the give vectors
@@ -78,6 +85,17 @@ public class Polygon {
         vertices[0] = vertex1;
         vertices[1] = vertex2;
         vertices[2] = vertex3;
+        markVerticesChanged();
+    }
+
+    /**
+     * Marks the plane and bounds of this polygon as stale, so they are recomputed on
+     * their next access. The setters call this themselves; it only needs to be called
+     * directly after modifying the components of a vertex in place
+     */
+    public void markVerticesChanged() {
+        isGeometryStale = true;
+        version++;
     }
     /**
      * Sets the color of this polygons face
@@ -162,7 +180,25 @@ public class Polygon {
         return isVisible;
     }
     public Vector getNormal() {
-        return plane.getNormalVector();
+        return getPlane().getNormalVector();
+    }
+    /**
+     * Returns the plane this polygon lies in; the returned plane must not be modified
+     * @return the plane this polygon lies in
+     */
+    public Plane getPlane() {
+        if (isGeometryStale) {
+            updateGeometry();
+        }
+        return plane;
+    }
+    /**
+     * Returns the number of times the vertices of this polygon have changed, which 
+     * lets copies of its geometry (such as a MeshBuffer) detect that they are out of date
+     * @return the number of times the vertices of this polygon have changed
+     */
+    public int getVersion() {
+        return version;
     }
     /**
      * Copies the colors, ID's and selection status of this polygon to the given polygon
@@ -199,17 +235,19 @@ public class Polygon {
                 "Face Color: " + faceColor + 
                 "Edge Color: " + edgeColor;
     }
-    private Vector calcNormal() {
-        Vector v = (vertices[1].subtract(vertices[0])).cross((vertices[2].subtract(vertices[0])));
-        return v.getUnitVector();
-        //return v.multiply(1/v.getLength());
-    }
-    public double[] getXYBounds() {
-        double[] xyBounds = {
-            vertices[0].getComponent(0),   // minX
-            vertices[0].getComponent(0),   // maxX
-            vertices[0].getComponent(1),   // minY
-            vertices[0].getComponent(1)};  // maxY
+    private void updateGeometry() {
+        if (plane == null) {
+            plane = new Plane(new Vec3(), new Vec3());
+            xyBounds = new double[4];
+        }
+        plane.set(
+                vertices[0].getComponent(0), vertices[0].getComponent(1), vertices[0].getComponent(2),
+                vertices[1].getComponent(0), vertices[1].getComponent(1), vertices[1].getComponent(2),
+                vertices[2].getComponent(0), vertices[2].getComponent(1), vertices[2].getComponent(2));
+        xyBounds[0] = vertices[0].getComponent(0);   // minX
+        xyBounds[1] = vertices[0].getComponent(0);   // maxX
+        xyBounds[2] = vertices[0].getComponent(1);   // minY
+        xyBounds[3] = vertices[0].getComponent(1);   // maxY
         for (int i = 1; i < vertices.length; i++) {
             if (vertices[i].getComponent(0) < xyBounds[0])
                 xyBounds[0] = vertices[i].getComponent(0);  // minX
@@ -220,6 +258,17 @@ public class Polygon {
             if (vertices[i].getComponent(1) > xyBounds[3])
                 xyBounds[3] = vertices[i].getComponent(1);  // maxY
         }
+        isGeometryStale = false;
+    }
+    /**
+     * Returns the minimum x, maximum x, minimum y and maximum y of this polygons 
+     * vertices; the returned array must not be modified
+     * @return the xy bounds of this polygon
+     */
+    public double[] getXYBounds() {
+        if (isGeometryStale) {
+            updateGeometry();
+        }
         return xyBounds;
     }
     public Color getIntersectingPointColor (Vector vector) {
@@ -229,10 +278,13 @@ public class Polygon {
         return Color.WHITE;
     }
     public Vector getIntersectingVector(Vector directionVector) {
-        return plane.getIntersectingVector(directionVector);
+        return getPlane().getIntersectingVector(directionVector);
     }
     public Vector lineIntersection(Vector directionVector) {
-        return plane.lineIntersection(directionVector);
+        return getPlane().lineIntersection(directionVector);
+    }
+    public Vec3 lineIntersection(Vec3 directionVector, Vec3 out) {
+        return getPlane().lineIntersection(directionVector, out);
     }
     private Color genRandomColor() {
         return new Color(
@@ -1,16 +1,15 @@
 package viewer3D.GraphicsEngine;
 
-import viewer3D.Math.Plane;
 import viewer3D.Math.Vector;
 
 /**
- * A polygon that has been projected in some way
+ * A polygon that has been projected in some way. Projected polygons are transient,
+ * so their plane and bounds are only computed if something asks for them
  * @author Arik Dicks
  */
 public class ProjectedPolygon extends Polygon {
     private Polygon originalPolygon;
 //    private Vector normal;
-    private Plane plane;
     /**
      * Constructs this polygon with vertices and a reference to the original polygon
      * @param vectorArray The vertices of this polygon
@@ -0,0 +1,12 @@
+package viewer3D.GraphicsEngine;
+
+/**
+ * Specifies the algorithm a camera uses to fill the triangles it observes. SCANLINE 
+ * builds edge spans and steps across them, EDGE_FUNCTION steps integer edge functions
+ * across each triangles bounding box, and TILED does the same after binning the 
+ * triangles into screen tiles, which are filled in parallel. BSP draws no depth buffer
+ * at all: it walks a BSP tree built once over the triangles front to back, and fills
+ * each pixel only the first time a triangle covers it
+ * @author Arik Dicks
+ */
+public enum Rasterizer {SCANLINE, EDGE_FUNCTION, TILED, BSP}
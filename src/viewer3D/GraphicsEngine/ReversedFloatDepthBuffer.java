@@ -0,0 +1,43 @@
+package viewer3D.GraphicsEngine;
+
+import java.util.Arrays;
+
+/**
+ * A depth buffer storing the inverse view space depth 1/z of each pixel as a float, 
+ * with larger values nearer. Floats are most precise near 0, which is where 1/z 
+ * crowds distant depths together, so depth precision stays nearly constant relative
+ * to distance. Empty entries hold 0
+ * @author Arik Dicks
+ */
+class ReversedFloatDepthBuffer extends DepthBuffer {
+    private final float[] entries;
+
+    ReversedFloatDepthBuffer(int width, int height) {
+        super(width, height);
+        entries = new float[width*height];
+    }
+    @Override
+    public void clear() {
+        Arrays.fill(entries, 0);
+    }
+    @Override
+    public boolean testAndSet(int index, float depth) {
+        if (depth > entries[index]) {
+            entries[index] = depth;
+            return true;
+        }
+        return false;
+    }
+    @Override
+    public float getDepth(int index) {
+        return entries[index];
+    }
+    @Override
+    public DepthFormat getFormat() {
+        return DepthFormat.REVERSED_FLOAT;
+    }
+    @Override
+    public int getBytesPerPixel() {
+        return 4;
+    }
+}
@@ -0,0 +1,199 @@
+package viewer3D.GraphicsEngine;
+
+import java.util.Arrays;
+
+/**
+ * A coverage buffer for drawing triangles front to back without a depth buffer. Each
+ * row keeps, for every pixel, a link to the first pixel at or after it still left
+ * uncovered, stored as the distance to it, so a zero link marks an uncovered pixel and
+ * the buffer is cleared with a single fill; a sentinel past the end of each row is 
+ * never covered. Following the links skips the covered runs of a row, and shortens 
+ * them as it goes (path splitting), so a triangle only ever visits pixels nothing 
+ * nearer has covered, and every pixel is written once. Triangles are snapped and 
+ * sampled exactly as by the edge function rasterizer, with the same fill rule, and the
+ * span of a triangle on each row is solved directly from its edge functions
+ * @author Arik Dicks
+ */
+class SpanBuffer {
+    private int width;
+    private int height;
+    private int[] frameBuffer;
+    // The links of every row, width + 1 per row, and the pixels left uncovered
+    private int[] links;
+    private int[] rowUncoveredCounts;
+    private int uncoveredCount;
+    private long writtenFragmentCount;
+
+    SpanBuffer() {
+        links = new int[0];
+        rowUncoveredCounts = new int[0];
+    }
+
+    /**
+     * Uncovers every pixel and targets the given frame buffer for the next triangles
+     * @param width The width of the frame buffer
+     * @param height The height of the frame buffer
+     * @param frameBuffer The values of the pixels, packed colors or triangle IDs, in rows
+     * from the top of the image
+     */
+    void reset(int width, int height, int[] frameBuffer) {
+        this.width = width;
+        this.height = height;
+        this.frameBuffer = frameBuffer;
+        if (links.length != (width + 1)*height) {
+            links = new int[(width + 1)*height];
+            rowUncoveredCounts = new int[height];
+        }
+        Arrays.fill(links, 0);
+        Arrays.fill(rowUncoveredCounts, width);
+        uncoveredCount = width*height;
+        writtenFragmentCount = 0;
+    }
+
+    /**
+     * Returns true if every pixel has been covered, after which no triangle can write
+     * any more pixels
+     * @return true if every pixel has been covered
+     */
+    boolean isFull() {
+        return uncoveredCount == 0;
+    }
+
+    /**
+     * Returns the number of pixels written since the last reset
+     * @return the number of pixels written since the last reset
+     */
+    long getWrittenFragmentCount() {
+        return writtenFragmentCount;
+    }
+
+    /**
+     * Writes the given value into the pixels of the triangle with the given pixelspace
+     * vertices that are still uncovered, and covers them. Triangles must be drawn front
+     * to back
+     */
+    void fillTriangle(double px1, double py1, double px2, double py2, double px3, double py3, int value) {
+        long vx1 = EdgeFunctionRasterizer.toSubpixel(px1), vy1 = EdgeFunctionRasterizer.toSubpixel(py1);
+        long vx2 = EdgeFunctionRasterizer.toSubpixel(px2), vy2 = EdgeFunctionRasterizer.toSubpixel(py2);
+        long vx3 = EdgeFunctionRasterizer.toSubpixel(px3), vy3 = EdgeFunctionRasterizer.toSubpixel(py3);
+        long area = (vx2 - vx1)*(vy3 - vy1) - (vx3 - vx1)*(vy2 - vy1);
+        if (area == 0) {
+            return;
+        }
+        if (area < 0) {
+            // Make the winding counter-clockwise, so the inside is left of every edge
+            long swapX = vx2, swapY = vy2;
+            vx2 = vx3; vy2 = vy3;
+            vx3 = swapX; vy3 = swapY;
+        }
+        int minCol = Math.max(EdgeFunctionRasterizer.ceilToPixel((int)Math.min(Math.min(vx1, vx2), vx3)), 0);
+        int maxCol = Math.min((int)Math.max(Math.max(vx1, vx2), vx3) >> EdgeFunctionRasterizer.SUBPIXEL_BITS, width - 1);
+        int minRow = Math.max(EdgeFunctionRasterizer.ceilToPixel((int)Math.min(Math.min(vy1, vy2), vy3)), 0);
+        int maxRow = Math.min((int)Math.max(Math.max(vy1, vy2), vy3) >> EdgeFunctionRasterizer.SUBPIXEL_BITS, height - 1);
+        if (minCol > maxCol || minRow > maxRow) {
+            return;
+        }
+
+        // The edge functions opposite each vertex, biased by the fill rule, as in the
+        // edge function rasterizer: w = a*16*col + b*16*row + origin
+        long a1 = vy2 - vy3, b1 = vx3 - vx2;
+        long a2 = vy3 - vy1, b2 = vx1 - vx3;
+        long a3 = vy1 - vy2, b3 = vx2 - vx1;
+        long w1Origin = -a1*vx2 - b1*vy2 + EdgeFunctionRasterizer.fillBias(a1, b1);
+        long w2Origin = -a2*vx3 - b2*vy3 + EdgeFunctionRasterizer.fillBias(a2, b2);
+        long w3Origin = -a3*vx1 - b3*vy1 + EdgeFunctionRasterizer.fillBias(a3, b3);
+        int scale = EdgeFunctionRasterizer.SUBPIXEL_SCALE;
+        for (int i = minRow; i <= maxRow; i++) {
+            if (rowUncoveredCounts[i] == 0) {
+                continue;
+            }
+            long lo = minCol, hi = maxCol;
+            long w1 = b1*scale*i + w1Origin, w2 = b2*scale*i + w2Origin, w3 = b3*scale*i + w3Origin;
+            lo = Math.max(lo, getFirstColumn(a1*scale, w1));
+            lo = Math.max(lo, getFirstColumn(a2*scale, w2));
+            lo = Math.max(lo, getFirstColumn(a3*scale, w3));
+            hi = Math.min(hi, getLastColumn(a1*scale, w1));
+            hi = Math.min(hi, getLastColumn(a2*scale, w2));
+            hi = Math.min(hi, getLastColumn(a3*scale, w3));
+            if (lo <= hi) {
+                fillSpan(i, (int)lo, (int)hi, value);
+            }
+        }
+    }
+
+    /**
+     * Writes the given value into the pixels still uncovered, and covers them
+     * @param value The value of the pixels nothing was drawn in
+     */
+    void fillUncovered(int value) {
+        for (int i = 0; i < height; i++) {
+            if (rowUncoveredCounts[i] > 0) {
+                fillSpan(i, 0, width - 1, value);
+            }
+        }
+    }
+
+    /**
+     * Returns the first column at which the edge function w = dx*col + w0 is not
+     * negative, which is unbounded below if it does not fall along the row, and
+     * beyond every column if it is negative along all of it
+     */
+    private static long getFirstColumn(long dx, long w0) {
+        if (dx > 0) {
+            return -Math.floorDiv(w0, dx);
+        }
+        return (dx == 0 && w0 < 0)? Long.MAX_VALUE : Long.MIN_VALUE;
+    }
+
+    /**
+     * Returns the last column at which the edge function w = dx*col + w0 is not
+     * negative, which is unbounded above if it does not rise along the row, and
+     * before every column if it is negative along all of it
+     */
+    private static long getLastColumn(long dx, long w0) {
+        if (dx < 0) {
+            return Math.floorDiv(w0, -dx);
+        }
+        return (dx == 0 && w0 < 0)? Long.MIN_VALUE : Long.MAX_VALUE;
+    }
+
+    /**
+     * Writes the given value into the uncovered pixels of the given row between lo and
+     * hi inclusive, and covers them by linking them past hi
+     */
+    private void fillSpan(int i, int lo, int hi, int value) {
+        int row = i*(width + 1);
+        int frameBufferRow = (height - 1 - i)*width;
+        int written = 0;
+        int j = find(row, lo);
+        while (j <= hi) {
+            frameBuffer[frameBufferRow + j] = value;
+            written++;
+            links[row + j] = hi + 1 - j;
+            j = find(row, j + 1);
+        }
+        if (written > 0) {
+            rowUncoveredCounts[i] -= written;
+            uncoveredCount -= written;
+            writtenFragmentCount += written;
+        }
+    }
+
+    /**
+     * Returns the first uncovered pixel of the given row at or after j, or the
+     * sentinel, halving the path of links followed along the way
+     */
+    private int find(int row, int j) {
+        int link = links[row + j];
+        while (link != 0) {
+            int next = j + link;
+            int nextLink = links[row + next];
+            if (nextLink != 0) {
+                links[row + j] = link + nextLink;
+            }
+            j = next;
+            link = nextLink;
+        }
+        return j;
+    }
+}
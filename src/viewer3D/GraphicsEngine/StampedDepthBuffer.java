@@ -0,0 +1,60 @@
+package viewer3D.GraphicsEngine;
+
+import java.util.Arrays;
+
+/**
+ * A depth buffer in which every entry is stamped with the frame generation it was
+ * written in. Entries from earlier generations count as empty, so clearing the buffer
+ * only advances the generation, and the entries themselves are only reset when the
+ * generation wraps. An entry packs the generation into its high 32 bits and the bits
+ * of the inverse depth into its low 32 bits; since the bits of positive floats order
+ * like the floats, a single long comparison tests both the generation and the depth
+ * @author Arik Dicks
+ */
+class StampedDepthBuffer extends DepthBuffer {
+    private static final long GENERATION_INCREMENT = 1L << 32;
+    private static final long MAX_GENERATION = ((long)Integer.MAX_VALUE) << 32;
+    private final long[] entries;
+    private long generation;
+
+    StampedDepthBuffer(int width, int height) {
+        super(width, height);
+        entries = new long[width*height];
+        generation = GENERATION_INCREMENT;
+    }
+
+    /**
+     * Empties this buffer by advancing its generation. Only once every 2^31 - 1 calls
+     * are the entries reset
+     */
+    @Override
+    public void clear() {
+        if (generation == MAX_GENERATION) {
+            Arrays.fill(entries, 0);
+            generation = 0;
+        }
+        generation += GENERATION_INCREMENT;
+    }
+    @Override
+    public boolean testAndSet(int index, float depth) {
+        long entry = generation | (Float.floatToRawIntBits(depth) & 0xFFFFFFFFL);
+        if (depth > 0 && entry > entries[index]) {
+            entries[index] = entry;
+            return true;
+        }
+        return false;
+    }
+    @Override
+    public float getDepth(int index) {
+        long entry = entries[index];
+        return ((entry & ~0xFFFFFFFFL) == generation)? Float.intBitsToFloat((int)entry) : 0;
+    }
+    @Override
+    public DepthFormat getFormat() {
+        return DepthFormat.STAMPED;
+    }
+    @Override
+    public int getBytesPerPixel() {
+        return 8;
+    }
+}
@@ -0,0 +1,164 @@
+package viewer3D.GraphicsEngine;
+
+/**
+ * Clips triangles in two stages: in view space against the near plane and, if it is
+ * finite, the far plane, before the perspective divide, and in screen space against
+ * a rectangle, for the rare polygons reaching past the guard band of the rasterizers.
+ * With the projection x/z, y/z used by the camera, the homogeneous clip space w of a
+ * vertex is its view space z, so the near and far planes are the planes w = near and
+ * w = far, and clipping against them in view space is clipping in clip space. Clipping
+ * a triangle against the near plane alone gives at most a quad, which is two triangles;
+ * against both planes, at most a pentagon, and each edge of the screen adds at most one
+ * more vertex. The clipped polygons are written into preallocated arrays, so clipping
+ * allocates nothing
+ * @author Arik Dicks
+ */
+class TriangleClipper {
+    static final int NEAR = 1;
+    static final int FAR = 2;
+    static final int MAX_VERTICES = 5;
+    static final int MAX_SCREEN_VERTICES = MAX_VERTICES + 4;
+    final double[] x;
+    final double[] y;
+    final double[] z;
+    int vertexCount;
+    private final double[] scratchX;
+    private final double[] scratchY;
+    private final double[] scratchZ;
+
+    // The screenspace polygon, filled in by the caller before clipToScreen
+    final double[] screenX;
+    final double[] screenY;
+    int screenVertexCount;
+    private final double[] screenScratchX;
+    private final double[] screenScratchY;
+
+    TriangleClipper() {
+        x = new double[MAX_VERTICES];
+        y = new double[MAX_VERTICES];
+        z = new double[MAX_VERTICES];
+        scratchX = new double[MAX_VERTICES];
+        scratchY = new double[MAX_VERTICES];
+        scratchZ = new double[MAX_VERTICES];
+        screenX = new double[MAX_SCREEN_VERTICES];
+        screenY = new double[MAX_SCREEN_VERTICES];
+        screenScratchX = new double[MAX_SCREEN_VERTICES];
+        screenScratchY = new double[MAX_SCREEN_VERTICES];
+    }
+
+    /**
+     * Returns the clip code of a vertex at the given view space depth, with the NEAR
+     * bit set if it is in front of the near plane, and the FAR bit set if it is behind
+     * the far plane
+     * @param z The view space depth of a vertex
+     * @param near The depth of the near plane
+     * @param far The depth of the far plane, which may be infinite
+     * @return the clip code of the vertex
+     */
+    static int getClipCode(double z, double near, double far) {
+        return ((z < near)? NEAR : 0) | ((z > far)? FAR : 0);
+    }
+
+    /**
+     * Clips the triangle with the given view space vertices to the space between the
+     * near and far planes, keeping the winding of the triangle
+     * @param clipCode The union of the clip codes of the vertices
+     * @return the number of vertices of the clipped polygon, which is less than 3 if
+     * nothing is left of the triangle
+     */
+    int clip(double x1, double y1, double z1, double x2, double y2, double z2,
+            double x3, double y3, double z3, int clipCode, double near, double far) {
+        x[0] = x1; y[0] = y1; z[0] = z1;
+        x[1] = x2; y[1] = y2; z[1] = z2;
+        x[2] = x3; y[2] = y3; z[2] = z3;
+        vertexCount = 3;
+        if ((clipCode & NEAR) != 0) {
+            clip(near, 1);
+        }
+        if ((clipCode & FAR) != 0 && vertexCount >= 3) {
+            clip(far, -1);
+        }
+        return vertexCount;
+    }
+
+    /**
+     * Clips the polygon to the side of the plane z = planeZ where (z - planeZ)*sign >= 0,
+     * with one pass of Sutherland-Hodgman
+     */
+    private void clip(double planeZ, int sign) {
+        int count = 0;
+        for (int i = 0; i < vertexCount; i++) {
+            int j = (i + 1 == vertexCount)? 0 : i + 1;
+            double distanceI = (z[i] - planeZ)*sign;
+            double distanceJ = (z[j] - planeZ)*sign;
+            if (distanceI >= 0) {
+                scratchX[count] = x[i];
+                scratchY[count] = y[i];
+                scratchZ[count] = z[i];
+                count++;
+            }
+            if ((distanceI >= 0) != (distanceJ >= 0)) {
+                double t = distanceI/(distanceI - distanceJ);
+                scratchX[count] = x[i] + (x[j] - x[i])*t;
+                scratchY[count] = y[i] + (y[j] - y[i])*t;
+                scratchZ[count] = planeZ;
+                count++;
+            }
+        }
+        System.arraycopy(scratchX, 0, x, 0, count);
+        System.arraycopy(scratchY, 0, y, 0, count);
+        System.arraycopy(scratchZ, 0, z, 0, count);
+        vertexCount = count;
+    }
+
+    /**
+     * Clips the screenspace polygon to the given rectangle, keeping its winding
+     * @param xLo The left edge of the rectangle
+     * @param yLo The bottom edge of the rectangle
+     * @param xHi The right edge of the rectangle
+     * @param yHi The top edge of the rectangle
+     * @return the number of vertices of the clipped polygon, which is less than 3 if
+     * nothing is left of it
+     */
+    int clipToScreen(double xLo, double yLo, double xHi, double yHi) {
+        clipToScreenEdge(true, xLo, 1);
+        clipToScreenEdge(true, xHi, -1);
+        clipToScreenEdge(false, yLo, 1);
+        clipToScreenEdge(false, yHi, -1);
+        return screenVertexCount;
+    }
+
+    /**
+     * Clips the screenspace polygon to the side of the vertical (isX) or horizontal 
+     * line u = bound where (u - bound)*sign >= 0, u being the coordinate of the vertices
+     * across the line and v the coordinate along it
+     */
+    private void clipToScreenEdge(boolean isX, double bound, int sign) {
+        if (screenVertexCount < 3) {
+            return;
+        }
+        double[] u = isX? screenX : screenY;
+        double[] v = isX? screenY : screenX;
+        double[] scratchU = isX? screenScratchX : screenScratchY;
+        double[] scratchV = isX? screenScratchY : screenScratchX;
+        int count = 0;
+        for (int i = 0; i < screenVertexCount; i++) {
+            int j = (i + 1 == screenVertexCount)? 0 : i + 1;
+            double distanceI = (u[i] - bound)*sign;
+            double distanceJ = (u[j] - bound)*sign;
+            if (distanceI >= 0) {
+                scratchU[count] = u[i];
+                scratchV[count] = v[i];
+                count++;
+            }
+            if ((distanceI >= 0) != (distanceJ >= 0)) {
+                scratchU[count] = bound;
+                scratchV[count] = v[i] + (v[j] - v[i])*(distanceI/(distanceI - distanceJ));
+                count++;
+            }
+        }
+        System.arraycopy(screenScratchX, 0, screenX, 0, count);
+        System.arraycopy(screenScratchY, 0, screenY, 0, count);
+        screenVertexCount = count;
+    }
+}
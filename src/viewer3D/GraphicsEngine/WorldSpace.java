@@ -9,6 +9,7 @@ import viewer3D.Polyhedrons.Polyhedron;
  */
 public class WorldSpace {
     ArrayList<Polyhedron> polyhedrons;
+    private MeshBuffer meshBuffer;
 
     /**
      * Constructs a world space, which consists of a set of polyhedrons (shapes made of polygons)
@@ -23,6 +24,7 @@ public class WorldSpace {
      */
     public void add(Polyhedron polyhedron) {
         polyhedrons.add(polyhedron);
+        meshBuffer = null;
     }
 
     /**
@@ -40,4 +42,17 @@ public class WorldSpace {
         Polygon[] polygons = new Polygon[polygonsList.size()];
         return polygonsList.toArray(polygons);
     }
+
+    /**
+     * Returns the vertices of all this world spaces polyhedrons packed into a single
+     * mesh buffer, with one object per polyhedron, which is built on the first call 
+     * and reused afterwards
+     * @return the mesh buffer of this world space
+     */
+    public MeshBuffer getMeshBuffer() {
+        if (meshBuffer == null) {
+            meshBuffer = new MeshBuffer(polyhedrons.toArray(new Polyhedron[polyhedrons.size()]));
+        }
+        return meshBuffer;
+    }
 }
@@ -49,8 +49,7 @@ public class Main {
         int height = width;
         
         // Make Camera
-        Polygon[] polygons = world.getPolygons();
-        Camera camera = new Camera(polygons, width, height, frame.getGraphicsConfiguration());
+        Camera camera = new Camera(world.getMeshBuffer(), width, height, frame.getGraphicsConfiguration());
         image = camera.observe();
         
         // Make Camera Control Panel
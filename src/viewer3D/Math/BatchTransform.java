@@ -0,0 +1,61 @@
+package viewer3D.Math;
+
+/**
+ * Applies an affine 4x4 transform to many points stored as separate x, y and z
+ * arrays. The scalar backend is always available; a backend using the incubating 
+ * JDK Vector API is compiled only by the SIMD build profile (ant -Dsimd.enabled=true) 
+ * and used only when the JVM is started with --add-modules jdk.incubator.vector
+ * @author Arik Dicks
+ */
+public interface BatchTransform {
+
+    /**
+     * Transforms count points of the source arrays, starting at the given offset, by 
+     * the given row-major 4x4 matrix (with an implicit w of 1), writing them into the 
+     * same indices of the destination arrays
+     * @param m The 16 elements of the matrix, row-major
+     * @param srcX The x coordinates of the points
+     * @param srcY The y coordinates of the points
+     * @param srcZ The z coordinates of the points
+     * @param dstX The array receiving the transformed x coordinates
+     * @param dstY The array receiving the transformed y coordinates
+     * @param dstZ The array receiving the transformed z coordinates
+     * @param offset The index of the first point to transform
+     * @param count The number of points to transform
+     */
+    public void transform(double[] m, 
+            double[] srcX, double[] srcY, double[] srcZ, 
+            double[] dstX, double[] dstY, double[] dstZ, 
+            int offset, int count);
+
+    /**
+     * Returns the name of this backend
+     * @return the name of this backend
+     */
+    public String getName();
+
+    /**
+     * Returns the backend that transforms one point at a time
+     * @return the scalar backend
+     */
+    public static BatchTransform getScalar() {
+        return ScalarBatchTransform.INSTANCE;
+    }
+
+    /**
+     * Returns the backend that transforms several points per instruction, or null
+     * if it was not compiled or the jdk.incubator.vector module is not available
+     * @return the vector backend, or null
+     */
+    public static BatchTransform getVector() {
+        return ScalarBatchTransform.VECTOR_INSTANCE;
+    }
+
+    /**
+     * Returns the vector backend if it is available, and the scalar backend otherwise
+     * @return the fastest available backend
+     */
+    public static BatchTransform getPreferred() {
+        return (getVector() != null)? getVector() : getScalar();
+    }
+}
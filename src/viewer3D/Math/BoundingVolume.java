@@ -0,0 +1,168 @@
+package viewer3D.Math;
+
+/**
+ * An axis aligned bounding box and a bounding sphere enclosing a set of points. The
+ * sphere is centred on the box, with the radius of the farthest point from its centre,
+ * so it is never looser than the sphere through the corners of the box. A volume
+ * enclosing no points is empty, and intersects nothing
+ * @author Arik Dicks
+ */
+public class BoundingVolume {
+    private final Vec3 min;
+    private final Vec3 max;
+    private final Vec3 center;
+    private double radius;
+
+    /**
+     * Constructs an empty bounding volume
+     */
+    public BoundingVolume() {
+        min = new Vec3();
+        max = new Vec3();
+        center = new Vec3();
+        setEmpty();
+    }
+
+    /**
+     * Constructs a copy of the given bounding volume
+     * @param other Another bounding volume
+     */
+    public BoundingVolume(BoundingVolume other) {
+        min = other.min.copy();
+        max = other.max.copy();
+        center = other.center.copy();
+        radius = other.radius;
+    }
+
+    /**
+     * Constructs the bounding volume of the given points
+     * @param points A set of points of at least 3 components
+     */
+    public BoundingVolume(Vector[] points) {
+        this();
+        set(points);
+    }
+
+    /**
+     * Sets this volume to enclose the given points
+     * @param points A set of points of at least 3 components
+     * @return this volume
+     */
+    public BoundingVolume set(Vector[] points) {
+        if (points.length == 0) {
+            return setEmpty();
+        }
+        min.set(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+        max.set(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+        for (Vector point : points) {
+            include(point.getComponent(0), point.getComponent(1), point.getComponent(2));
+        }
+        center.set((min.x + max.x)/2, (min.y + max.y)/2, (min.z + max.z)/2);
+        double radiusSquared = 0;
+        for (Vector point : points) {
+            radiusSquared = Math.max(radiusSquared,
+                    distanceSquared(point.getComponent(0), point.getComponent(1), point.getComponent(2)));
+        }
+        radius = Math.sqrt(radiusSquared);
+        return this;
+    }
+
+    /**
+     * Sets this volume to enclose the points in the given range of coordinate arrays
+     * @param x The x coordinates of the points
+     * @param y The y coordinates of the points
+     * @param z The z coordinates of the points
+     * @param start The index of the first point
+     * @param end The index after the last point
+     * @return this volume
+     */
+    public BoundingVolume set(double[] x, double[] y, double[] z, int start, int end) {
+        if (start >= end) {
+            return setEmpty();
+        }
+        min.set(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+        max.set(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+        for (int i = start; i < end; i++) {
+            include(x[i], y[i], z[i]);
+        }
+        center.set((min.x + max.x)/2, (min.y + max.y)/2, (min.z + max.z)/2);
+        double radiusSquared = 0;
+        for (int i = start; i < end; i++) {
+            radiusSquared = Math.max(radiusSquared, distanceSquared(x[i], y[i], z[i]));
+        }
+        radius = Math.sqrt(radiusSquared);
+        return this;
+    }
+
+    /**
+     * Sets this volume to the given bounding volume
+     * @param other Another bounding volume
+     * @return this volume
+     */
+    public BoundingVolume set(BoundingVolume other) {
+        min.set(other.min);
+        max.set(other.max);
+        center.set(other.center);
+        radius = other.radius;
+        return this;
+    }
+
+    /**
+     * Returns the corner of the box with the smallest coordinates
+     * @return the minimum corner of the box
+     */
+    public Vec3 getMin() {
+        return min;
+    }
+
+    /**
+     * Returns the corner of the box with the largest coordinates
+     * @return the maximum corner of the box
+     */
+    public Vec3 getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the centre of the sphere
+     * @return the centre of the sphere
+     */
+    public Vec3 getCenter() {
+        return center;
+    }
+
+    /**
+     * Returns the radius of the sphere, which is negative if this volume is empty
+     * @return the radius of the sphere
+     */
+    public double getRadius() {
+        return radius;
+    }
+
+    /**
+     * Returns true if this volume encloses no points
+     * @return true if this volume is empty
+     */
+    public boolean isEmpty() {
+        return radius < 0;
+    }
+    @Override
+    public String toString() {
+        return "min: " + min + " max: " + max + " center: " + center + " radius: " + radius;
+    }
+    private BoundingVolume setEmpty() {
+        min.set(0, 0, 0);
+        max.set(0, 0, 0);
+        center.set(0, 0, 0);
+        radius = -1;
+        return this;
+    }
+    private void include(double x, double y, double z) {
+        min.set(Math.min(min.x, x), Math.min(min.y, y), Math.min(min.z, z));
+        max.set(Math.max(max.x, x), Math.max(max.y, y), Math.max(max.z, z));
+    }
+    private double distanceSquared(double x, double y, double z) {
+        double dx = x - center.x, dy = y - center.y, dz = z - center.z;
+        return dx*dx + dy*dy + dz*dz;
+    }
+}
@@ -0,0 +1,101 @@
+package viewer3D.Math;
+
+/**
+ * The six planes bounding the volume a camera can see, stored in world space with
+ * their normals pointing inwards. In view space, the side planes pass through the
+ * eye with the given slopes (|x| <= xSlope*z, |y| <= ySlope*z), and the near and far
+ * planes lie at the given depths
+ * @author Arik Dicks
+ */
+public class Frustum {
+    private static final int PLANE_COUNT = 6;
+    private final double[] normalX;
+    private final double[] normalY;
+    private final double[] normalZ;
+    private final double[] d;
+
+    /**
+     * Constructs a frustum which contains everything, until its view is set
+     */
+    public Frustum() {
+        normalX = new double[PLANE_COUNT];
+        normalY = new double[PLANE_COUNT];
+        normalZ = new double[PLANE_COUNT];
+        d = new double[PLANE_COUNT];
+        for (int i = 0; i < PLANE_COUNT; i++) {
+            d[i] = Double.NEGATIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Sets the planes of this frustum to those of the given view. A view space plane
+     * n.p >= d becomes the world space plane (R^T n).p >= d - n.t, where R and t are
+     * the linear part and the translation of the view matrix
+     * @param viewMatrix The world to view transform
+     * @param xSlope The horizontal extent of the view per unit of depth
+     * @param ySlope The vertical extent of the view per unit of depth
+     * @param near The depth of the near plane
+     * @param far The depth of the far plane, which may be infinite
+     * @return this frustum
+     */
+    public Frustum setView(Mat4 viewMatrix, double xSlope, double ySlope, double near, double far) {
+        setPlane(0, viewMatrix, -1, 0, xSlope, 0);
+        setPlane(1, viewMatrix, 1, 0, xSlope, 0);
+        setPlane(2, viewMatrix, 0, -1, ySlope, 0);
+        setPlane(3, viewMatrix, 0, 1, ySlope, 0);
+        setPlane(4, viewMatrix, 0, 0, 1, near);
+        setPlane(5, viewMatrix, 0, 0, -1, -far);
+        return this;
+    }
+
+    /**
+     * Returns false if the given volume lies entirely outside one of the planes of
+     * this frustum. The bounding sphere is tested first, and only if it straddles the
+     * frustum is the box tested, by the corner of the box farthest along the normal
+     * of each plane. Volumes near a corner of the frustum may pass without being
+     * inside it, but no volume inside it is ever rejected
+     * @param volume A bounding volume
+     * @return false if the volume is certainly outside this frustum
+     */
+    public boolean intersects(BoundingVolume volume) {
+        if (volume.isEmpty()) {
+            return false;
+        }
+        Vec3 center = volume.getCenter();
+        double radius = volume.getRadius();
+        boolean isInside = true;
+        for (int i = 0; i < PLANE_COUNT; i++) {
+            double distance = normalX[i]*center.x + normalY[i]*center.y + normalZ[i]*center.z - d[i];
+            if (distance < -radius) {
+                return false;
+            }
+            isInside &= distance >= radius;
+        }
+        if (isInside) {
+            return true;
+        }
+        Vec3 min = volume.getMin();
+        Vec3 max = volume.getMax();
+        for (int i = 0; i < PLANE_COUNT; i++) {
+            double x = (normalX[i] >= 0)? max.x : min.x;
+            double y = (normalY[i] >= 0)? max.y : min.y;
+            double z = (normalZ[i] >= 0)? max.z : min.z;
+            if (normalX[i]*x + normalY[i]*y + normalZ[i]*z - d[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    private void setPlane(int i, Mat4 viewMatrix, double viewNormalX, double viewNormalY, double viewNormalZ, double viewD) {
+        double[] m = viewMatrix.getElements();
+        double x = m[0]*viewNormalX + m[4]*viewNormalY + m[8]*viewNormalZ;
+        double y = m[1]*viewNormalX + m[5]*viewNormalY + m[9]*viewNormalZ;
+        double z = m[2]*viewNormalX + m[6]*viewNormalY + m[10]*viewNormalZ;
+        double planeD = viewD - (m[3]*viewNormalX + m[7]*viewNormalY + m[11]*viewNormalZ);
+        double length = Math.sqrt(x*x + y*y + z*z);
+        normalX[i] = x/length;
+        normalY[i] = y/length;
+        normalZ[i] = z/length;
+        d[i] = planeD/length;
+    }
+}
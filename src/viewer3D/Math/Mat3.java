@@ -0,0 +1,207 @@
+package viewer3D.Math;
+
+/**
+ * A 3x3 matrix stored row-major in a flat array of 9 doubles, with fully unrolled
+ * multiplication, inversion and transformation. Results are written into caller
+ * supplied outputs, so no operation allocates
+ * @author Arik Dicks
+ */
+public class Mat3 {
+    final double[] m;
+
+    /**
+     * Constructs the identity matrix
+     */
+    public Mat3() {
+        m = new double[9];
+        setIdentity();
+    }
+
+    /**
+     * Constructs a matrix with the same elements as the given 3x3 matrix
+     * @param matrix A 3x3 matrix
+     */
+    public Mat3(Matrix matrix) {
+        m = new double[9];
+        set(matrix);
+    }
+
+    /**
+     * Sets this matrix to the identity matrix
+     * @return this matrix
+     */
+    public Mat3 setIdentity() {
+        return set(1, 0, 0,
+                   0, 1, 0,
+                   0, 0, 1);
+    }
+
+    /**
+     * Sets the elements of this matrix, given in row-major order
+     * @return this matrix
+     */
+    public Mat3 set(double m00, double m01, double m02,
+                    double m10, double m11, double m12,
+                    double m20, double m21, double m22) {
+        m[0] = m00; m[1] = m01; m[2] = m02;
+        m[3] = m10; m[4] = m11; m[5] = m12;
+        m[6] = m20; m[7] = m21; m[8] = m22;
+        return this;
+    }
+
+    /**
+     * Sets the elements of this matrix to those of the given matrix
+     * @param other Another matrix
+     * @return this matrix
+     */
+    public Mat3 set(Mat3 other) {
+        System.arraycopy(other.m, 0, m, 0, 9);
+        return this;
+    }
+
+    /**
+     * Sets the elements of this matrix to those of the given 3x3 matrix
+     * @param matrix A 3x3 matrix
+     * @return this matrix
+     */
+    public Mat3 set(Matrix matrix) {
+        double[][] r = matrix.matrix;
+        return set(r[0][0], r[0][1], r[0][2],
+                   r[1][0], r[1][1], r[1][2],
+                   r[2][0], r[2][1], r[2][2]);
+    }
+
+    /**
+     * Sets this matrix to the rotation around the x axis by the given angle
+     * @param theta The angle, in radians
+     * @return this matrix
+     */
+    public Mat3 setXRotation(double theta) {
+        double cos = Math.cos(theta);
+        double sin = Math.sin(theta);
+        return set(1, 0, 0,
+                   0, cos, -sin,
+                   0, sin, cos);
+    }
+
+    /**
+     * Sets this matrix to the rotation around the y axis by the given angle
+     * @param theta The angle, in radians
+     * @return this matrix
+     */
+    public Mat3 setYRotation(double theta) {
+        double cos = Math.cos(theta);
+        double sin = Math.sin(theta);
+        return set(cos, 0, sin,
+                   0, 1, 0,
+                   -sin, 0, cos);
+    }
+
+    /**
+     * Sets this matrix to the rotation around the z axis by the given angle
+     * @param theta The angle, in radians
+     * @return this matrix
+     */
+    public Mat3 setZRotation(double theta) {
+        double cos = Math.cos(theta);
+        double sin = Math.sin(theta);
+        return set(cos, -sin, 0,
+                   sin, cos, 0,
+                   0, 0, 1);
+    }
+
+    /**
+     * Returns the element at the given row and column
+     * @param rowIndex the row index
+     * @param columnIndex the column index
+     * @return the element at the given row and column
+     */
+    public double getElement(int rowIndex, int columnIndex) {
+        return m[rowIndex*3 + columnIndex];
+    }
+
+    /**
+     * Writes the product of this matrix and the given matrix (this*other) into out
+     * @param other Another matrix
+     * @param out The matrix receiving the product (may be this or other)
+     * @return out
+     */
+    public Mat3 multiplyInto(Mat3 other, Mat3 out) {
+        double[] a = m, b = other.m;
+        return out.set(
+                a[0]*b[0] + a[1]*b[3] + a[2]*b[6],
+                a[0]*b[1] + a[1]*b[4] + a[2]*b[7],
+                a[0]*b[2] + a[1]*b[5] + a[2]*b[8],
+                a[3]*b[0] + a[4]*b[3] + a[5]*b[6],
+                a[3]*b[1] + a[4]*b[4] + a[5]*b[7],
+                a[3]*b[2] + a[4]*b[5] + a[5]*b[8],
+                a[6]*b[0] + a[7]*b[3] + a[8]*b[6],
+                a[6]*b[1] + a[7]*b[4] + a[8]*b[7],
+                a[6]*b[2] + a[7]*b[5] + a[8]*b[8]);
+    }
+
+    /**
+     * Returns the determinant of this matrix
+     * @return the determinant of this matrix
+     */
+    public double determinant() {
+        return m[0]*(m[4]*m[8] - m[5]*m[7])
+             - m[1]*(m[3]*m[8] - m[5]*m[6])
+             + m[2]*(m[3]*m[7] - m[4]*m[6]);
+    }
+
+    /**
+     * Writes the inverse of this matrix into out
+     * @param out The matrix receiving the inverse (may be this)
+     * @return out, or null if this matrix is singular
+     */
+    public Mat3 invertInto(Mat3 out) {
+        double c00 = m[4]*m[8] - m[5]*m[7];
+        double c01 = m[5]*m[6] - m[3]*m[8];
+        double c02 = m[3]*m[7] - m[4]*m[6];
+        double determinant = m[0]*c00 + m[1]*c01 + m[2]*c02;
+        if (determinant == 0) {
+            return null;
+        }
+        double inverseDeterminant = 1/determinant;
+        return out.set(
+                c00*inverseDeterminant,
+                (m[2]*m[7] - m[1]*m[8])*inverseDeterminant,
+                (m[1]*m[5] - m[2]*m[4])*inverseDeterminant,
+                c01*inverseDeterminant,
+                (m[0]*m[8] - m[2]*m[6])*inverseDeterminant,
+                (m[2]*m[3] - m[0]*m[5])*inverseDeterminant,
+                c02*inverseDeterminant,
+                (m[1]*m[6] - m[0]*m[7])*inverseDeterminant,
+                (m[0]*m[4] - m[1]*m[3])*inverseDeterminant);
+    }
+
+    /**
+     * Writes the product of this matrix and the given vector into out
+     * @param vector A vector
+     * @param out The vector receiving the result (may be vector)
+     * @return out
+     */
+    public Vec3 transform(Vec3 vector, Vec3 out) {
+        double x = vector.x, y = vector.y, z = vector.z;
+        return out.set(
+                m[0]*x + m[1]*y + m[2]*z,
+                m[3]*x + m[4]*y + m[5]*z,
+                m[6]*x + m[7]*y + m[8]*z);
+    }
+
+    /**
+     * Returns a generic Matrix with the same elements as this matrix
+     * @return a generic Matrix with the same elements as this matrix
+     */
+    public Matrix toMatrix() {
+        return new Matrix(new double[][]{
+            {m[0], m[1], m[2]},
+            {m[3], m[4], m[5]},
+            {m[6], m[7], m[8]}});
+    }
+    @Override
+    public String toString() {
+        return toMatrix().toString();
+    }
+}
@@ -0,0 +1,345 @@
+package viewer3D.Math;
+
+import java.util.Arrays;
+
+/**
+ * A 4x4 matrix stored row-major in a flat array of 16 doubles, used for affine
+ * transforms of points (rotation followed by translation). Multiplication, inversion 
+ * and transformation are fully unrolled and write into caller supplied outputs
+ * @author Arik Dicks
+ */
+public class Mat4 {
+    final double[] m;
+
+    /**
+     * Constructs the identity matrix
+     */
+    public Mat4() {
+        m = new double[16];
+        setIdentity();
+    }
+
+    /**
+     * Constructs a matrix with the same elements as the given 4x4 matrix
+     * @param matrix A 4x4 matrix
+     */
+    public Mat4(Matrix matrix) {
+        m = new double[16];
+        set(matrix);
+    }
+
+    /**
+     * Sets this matrix to the identity matrix
+     * @return this matrix
+     */
+    public Mat4 setIdentity() {
+        Arrays.fill(m, 0);
+        m[0] = 1;
+        m[5] = 1;
+        m[10] = 1;
+        m[15] = 1;
+        return this;
+    }
+
+    /**
+     * Sets the elements of this matrix to those of the given matrix
+     * @param other Another matrix
+     * @return this matrix
+     */
+    public Mat4 set(Mat4 other) {
+        System.arraycopy(other.m, 0, m, 0, 16);
+        return this;
+    }
+
+    /**
+     * Sets the elements of this matrix to those of the given 4x4 matrix
+     * @param matrix A 4x4 matrix
+     * @return this matrix
+     */
+    public Mat4 set(Matrix matrix) {
+        double[][] r = matrix.matrix;
+        for (int i = 0; i < 4; i++) {
+            System.arraycopy(r[i], 0, m, i*4, 4);
+        }
+        return this;
+    }
+
+    /**
+     * Sets this matrix to the view transform of an observer at the given eye position
+     * whose world to view rotation is the given 3x3 matrix, ie. the transform
+     * p -> rotation*(p - eye)
+     * @param rotation A 3x3 rotation matrix
+     * @param eye The position of the observer
+     * @return this matrix
+     */
+    public Mat4 setView(Mat3 rotation, Vec3 eye) {
+        double[] r = rotation.m;
+        m[0] = r[0];
+        m[1] = r[1];
+        m[2] = r[2];
+        m[3] = -(r[0]*eye.x + r[1]*eye.y + r[2]*eye.z);
+        m[4] = r[3];
+        m[5] = r[4];
+        m[6] = r[5];
+        m[7] = -(r[3]*eye.x + r[4]*eye.y + r[5]*eye.z);
+        m[8] = r[6];
+        m[9] = r[7];
+        m[10] = r[8];
+        m[11] = -(r[6]*eye.x + r[7]*eye.y + r[8]*eye.z);
+        m[12] = 0;
+        m[13] = 0;
+        m[14] = 0;
+        m[15] = 1;
+        return this;
+    }
+
+    /**
+     * Sets this matrix to the view transform of an observer at the given eye position
+     * whose world to view rotation is the given 3x3 matrix, ie. the transform
+     * p -> rotation*(p - eye)
+     * @param rotation A 3x3 rotation matrix
+     * @param eye The position of the observer
+     * @return this matrix
+     */
+    public Mat4 setView(Matrix rotation, Vec3 eye) {
+        double[][] r = rotation.matrix;
+        for (int i = 0; i < 3; i++) {
+            m[i*4] = r[i][0];
+            m[i*4 + 1] = r[i][1];
+            m[i*4 + 2] = r[i][2];
+            m[i*4 + 3] = -(r[i][0]*eye.x + r[i][1]*eye.y + r[i][2]*eye.z);
+        }
+        m[12] = 0;
+        m[13] = 0;
+        m[14] = 0;
+        m[15] = 1;
+        return this;
+    }
+
+    /**
+     * Sets this matrix to the view transform of an observer at the given eye position
+     * whose orientation is described by the given orthonormal basis, ie. the basis 
+     * vectors become the rows of the rotation
+     * @param right The unit vector to the observers right
+     * @param up The unit vector upwards from the observer
+     * @param forward The unit vector the observer faces along
+     * @param eye The position of the observer
+     * @return this matrix
+     */
+    public Mat4 setView(Vec3 right, Vec3 up, Vec3 forward, Vec3 eye) {
+        m[0] = right.x;
+        m[1] = right.y;
+        m[2] = right.z;
+        m[3] = -right.dot(eye);
+        m[4] = up.x;
+        m[5] = up.y;
+        m[6] = up.z;
+        m[7] = -up.dot(eye);
+        m[8] = forward.x;
+        m[9] = forward.y;
+        m[10] = forward.z;
+        m[11] = -forward.dot(eye);
+        m[12] = 0;
+        m[13] = 0;
+        m[14] = 0;
+        m[15] = 1;
+        return this;
+    }
+
+    /**
+     * Returns the element at the given row and column
+     * @param rowIndex the row index
+     * @param columnIndex the column index
+     * @return the element at the given row and column
+     */
+    public double getElement(int rowIndex, int columnIndex) {
+        return m[rowIndex*4 + columnIndex];
+    }
+
+    /**
+     * Returns the backing array of this matrix, in row-major order. Intended for
+     * loops that transform many points and want the elements in locals
+     * @return the backing array of this matrix
+     */
+    public double[] getElements() {
+        return m;
+    }
+
+    /**
+     * Transforms the point with the given coordinates (with an implicit w of 1) and
+     * writes the result into out
+     * @param x The x coordinate of the point
+     * @param y The y coordinate of the point
+     * @param z The z coordinate of the point
+     * @param out The vector receiving the transformed point
+     * @return out
+     */
+    public Vec3 transformPoint(double x, double y, double z, Vec3 out) {
+        return out.set(
+                m[0]*x + m[1]*y + m[2]*z + m[3],
+                m[4]*x + m[5]*y + m[6]*z + m[7],
+                m[8]*x + m[9]*y + m[10]*z + m[11]);
+    }
+
+    /**
+     * Transforms the given point (with an implicit w of 1) and writes the result into out
+     * @param point A point
+     * @param out The vector receiving the transformed point (may be point)
+     * @return out
+     */
+    public Vec3 transformPoint(Vec3 point, Vec3 out) {
+        return transformPoint(point.x, point.y, point.z, out);
+    }
+
+    /**
+     * Transforms the given direction (with an implicit w of 0, so the translation 
+     * is ignored) and writes the result into out
+     * @param direction A direction
+     * @param out The vector receiving the transformed direction (may be direction)
+     * @return out
+     */
+    public Vec3 transformDirection(Vec3 direction, Vec3 out) {
+        double x = direction.x, y = direction.y, z = direction.z;
+        return out.set(
+                m[0]*x + m[1]*y + m[2]*z,
+                m[4]*x + m[5]*y + m[6]*z,
+                m[8]*x + m[9]*y + m[10]*z);
+    }
+
+    /**
+     * Writes the product of this matrix and the given matrix (this*other) into out
+     * @param other Another matrix
+     * @param out The matrix receiving the product (may be this or other)
+     * @return out
+     */
+    public Mat4 multiplyInto(Mat4 other, Mat4 out) {
+        double[] a = m, b = other.m;
+        double a00 = a[0], a01 = a[1], a02 = a[2], a03 = a[3];
+        double a10 = a[4], a11 = a[5], a12 = a[6], a13 = a[7];
+        double a20 = a[8], a21 = a[9], a22 = a[10], a23 = a[11];
+        double a30 = a[12], a31 = a[13], a32 = a[14], a33 = a[15];
+        double b00 = b[0], b01 = b[1], b02 = b[2], b03 = b[3];
+        double b10 = b[4], b11 = b[5], b12 = b[6], b13 = b[7];
+        double b20 = b[8], b21 = b[9], b22 = b[10], b23 = b[11];
+        double b30 = b[12], b31 = b[13], b32 = b[14], b33 = b[15];
+        double[] o = out.m;
+        o[0] = a00*b00 + a01*b10 + a02*b20 + a03*b30;
+        o[1] = a00*b01 + a01*b11 + a02*b21 + a03*b31;
+        o[2] = a00*b02 + a01*b12 + a02*b22 + a03*b32;
+        o[3] = a00*b03 + a01*b13 + a02*b23 + a03*b33;
+        o[4] = a10*b00 + a11*b10 + a12*b20 + a13*b30;
+        o[5] = a10*b01 + a11*b11 + a12*b21 + a13*b31;
+        o[6] = a10*b02 + a11*b12 + a12*b22 + a13*b32;
+        o[7] = a10*b03 + a11*b13 + a12*b23 + a13*b33;
+        o[8] = a20*b00 + a21*b10 + a22*b20 + a23*b30;
+        o[9] = a20*b01 + a21*b11 + a22*b21 + a23*b31;
+        o[10] = a20*b02 + a21*b12 + a22*b22 + a23*b32;
+        o[11] = a20*b03 + a21*b13 + a22*b23 + a23*b33;
+        o[12] = a30*b00 + a31*b10 + a32*b20 + a33*b30;
+        o[13] = a30*b01 + a31*b11 + a32*b21 + a33*b31;
+        o[14] = a30*b02 + a31*b12 + a32*b22 + a33*b32;
+        o[15] = a30*b03 + a31*b13 + a32*b23 + a33*b33;
+        return out;
+    }
+
+    /**
+     * Writes the inverse of this matrix into out
+     * @param out The matrix receiving the inverse (may be this)
+     * @return out, or null if this matrix is singular
+     */
+    public Mat4 invertInto(Mat4 out) {
+        double a00 = m[0], a01 = m[1], a02 = m[2], a03 = m[3];
+        double a10 = m[4], a11 = m[5], a12 = m[6], a13 = m[7];
+        double a20 = m[8], a21 = m[9], a22 = m[10], a23 = m[11];
+        double a30 = m[12], a31 = m[13], a32 = m[14], a33 = m[15];
+        
+        // 2x2 determinants of the top two rows and of the bottom two rows
+        double s0 = a00*a11 - a10*a01;
+        double s1 = a00*a12 - a10*a02;
+        double s2 = a00*a13 - a10*a03;
+        double s3 = a01*a12 - a11*a02;
+        double s4 = a01*a13 - a11*a03;
+        double s5 = a02*a13 - a12*a03;
+        double c5 = a22*a33 - a32*a23;
+        double c4 = a21*a33 - a31*a23;
+        double c3 = a21*a32 - a31*a22;
+        double c2 = a20*a33 - a30*a23;
+        double c1 = a20*a32 - a30*a22;
+        double c0 = a20*a31 - a30*a21;
+        
+        double determinant = s0*c5 - s1*c4 + s2*c3 + s3*c2 - s4*c1 + s5*c0;
+        if (determinant == 0) {
+            return null;
+        }
+        double inverseDeterminant = 1/determinant;
+        double[] o = out.m;
+        o[0] = (a11*c5 - a12*c4 + a13*c3)*inverseDeterminant;
+        o[1] = (-a01*c5 + a02*c4 - a03*c3)*inverseDeterminant;
+        o[2] = (a31*s5 - a32*s4 + a33*s3)*inverseDeterminant;
+        o[3] = (-a21*s5 + a22*s4 - a23*s3)*inverseDeterminant;
+        o[4] = (-a10*c5 + a12*c2 - a13*c1)*inverseDeterminant;
+        o[5] = (a00*c5 - a02*c2 + a03*c1)*inverseDeterminant;
+        o[6] = (-a30*s5 + a32*s2 - a33*s1)*inverseDeterminant;
+        o[7] = (a20*s5 - a22*s2 + a23*s1)*inverseDeterminant;
+        o[8] = (a10*c4 - a11*c2 + a13*c0)*inverseDeterminant;
+        o[9] = (-a00*c4 + a01*c2 - a03*c0)*inverseDeterminant;
+        o[10] = (a30*s4 - a31*s2 + a33*s0)*inverseDeterminant;
+        o[11] = (-a20*s4 + a21*s2 - a23*s0)*inverseDeterminant;
+        o[12] = (-a10*c3 + a11*c1 - a12*c0)*inverseDeterminant;
+        o[13] = (a00*c3 - a01*c1 + a02*c0)*inverseDeterminant;
+        o[14] = (-a30*s3 + a31*s1 - a32*s0)*inverseDeterminant;
+        o[15] = (a20*s3 - a21*s1 + a22*s0)*inverseDeterminant;
+        return out;
+    }
+
+    /**
+     * Returns a generic Matrix with the same elements as this matrix
+     * @return a generic Matrix with the same elements as this matrix
+     */
+    public Matrix toMatrix() {
+        double[][] rows = new double[4][4];
+        for (int i = 0; i < 4; i++) {
+            System.arraycopy(m, i*4, rows[i], 0, 4);
+        }
+        return new Matrix(rows);
+    }
+
+    /**
+     * Transforms the first count points of the source arrays (with an implicit w of 1)
+     * and writes them into the destination arrays, using the vector backend of 
+     * BatchTransform when it is available and a scalar loop otherwise
+     * @param srcX The x coordinates of the points
+     * @param srcY The y coordinates of the points
+     * @param srcZ The z coordinates of the points
+     * @param dstX The array receiving the transformed x coordinates
+     * @param dstY The array receiving the transformed y coordinates
+     * @param dstZ The array receiving the transformed z coordinates
+     * @param count The number of points to transform
+     */
+    public void transformBatch(double[] srcX, double[] srcY, double[] srcZ, 
+            double[] dstX, double[] dstY, double[] dstZ, int count) {
+        transformBatch(srcX, srcY, srcZ, dstX, dstY, dstZ, 0, count);
+    }
+
+    /**
+     * Transforms count points of the source arrays starting at the given offset (with 
+     * an implicit w of 1) and writes them into the same indices of the destination 
+     * arrays, so disjoint ranges of the same arrays can be transformed concurrently
+     * @param srcX The x coordinates of the points
+     * @param srcY The y coordinates of the points
+     * @param srcZ The z coordinates of the points
+     * @param dstX The array receiving the transformed x coordinates
+     * @param dstY The array receiving the transformed y coordinates
+     * @param dstZ The array receiving the transformed z coordinates
+     * @param offset The index of the first point to transform
+     * @param count The number of points to transform
+     */
+    public void transformBatch(double[] srcX, double[] srcY, double[] srcZ, 
+            double[] dstX, double[] dstY, double[] dstZ, int offset, int count) {
+        BatchTransform.getPreferred().transform(m, srcX, srcY, srcZ, dstX, dstY, dstZ, offset, count);
+    }
+    @Override
+    public String toString() {
+        return toMatrix().toString();
+    }
+}
@@ -33,9 +33,9 @@ public class Matrix {
     }
 
     /**
-     * *NOT IMPLEMENTED*
-     * @param otherMatrix
-     * @return
+     * Returns the product of this matrix and the given matrix
+     * @param otherMatrix A matrix with as many rows as this matrix has columns
+     * @return the product of this matrix and the given matrix
      */
     public Matrix multiply(Matrix otherMatrix) {
         Matrix newMatrix = new Matrix(matrix.length, otherMatrix.matrix[0].length);
@@ -44,7 +44,7 @@ public class Matrix {
             for (int j = 0; j < newMatrix.matrix[0].length; j++) {
                 // Loop through first matrix and 2nd matrix
                 //System.out.println(newMatrix);
-                for (int k = 0; k < matrix.length; k++) {
+                for (int k = 0; k < matrix[0].length; k++) {
                     //System.out.println("Cell " + i + ":" + j + "(" + newMatrix.matrix[i][j] + ")" +" += " + matrix[i][k] + "*" + otherMatrix.matrix[k][i]);
                     newMatrix.matrix[i][j] += matrix[i][k]*otherMatrix.matrix[k][j];
                     //System.out.println(newMatrix.matrix[i][j]);
@@ -57,12 +57,20 @@ public class Matrix {
     }
 
     /**
-     * *NOT IMPLEMENTED*
-     * @param vector
-     * @return
+     * Returns the product of this matrix and the given column vector
+     * @param vector A vector with as many components as this matrix has columns
+     * @return the product of this matrix and the given vector
      */
     public Vector multiply(Vector vector) {
-        return new Vector(0);
+        Vector newVector = new Vector(matrix.length);
+        for (int i = 0; i < matrix.length; i++) {
+            double component = 0;
+            for (int j = 0; j < matrix[0].length; j++) {
+                component += matrix[i][j]*vector.getComponent(j);
+            }
+            newVector.setComponent(component, i);
+        }
+        return newVector;
     }
 
     /**
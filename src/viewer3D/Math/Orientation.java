@@ -0,0 +1,145 @@
+package viewer3D.Math;
+
+/**
+ * A yaw/pitch orientation held as the cosines and sines of its two angles, from
+ * which an orthonormal right/up/forward basis is built with multiplications only.
+ * Rotating by a delta composes the delta onto the stored cosine/sine pairs using
+ * the angle addition identities, so small deltas (such as those produced by mouse
+ * movement) cost no calls to Math.sin or Math.cos
+ * @author Arik Dicks
+ */
+public class Orientation {
+    // Deltas below this many radians use a polynomial for their sine and cosine
+    private static final double SMALL_ANGLE = 0.125;
+    private double yawCos;
+    private double yawSin;
+    private double pitchCos;
+    private double pitchSin;
+    private double yawDegrees;
+    private double pitchDegrees;
+
+    /**
+     * Constructs an orientation facing along the positive z axis
+     */
+    public Orientation() {
+        yawCos = 1;
+        pitchCos = 1;
+    }
+
+    /**
+     * Rotates this orientation by the given yaw and pitch deltas
+     * @param deltaYaw The change in yaw, in degrees
+     * @param deltaPitch The change in pitch, in degrees
+     */
+    public void rotate(double deltaYaw, double deltaPitch) {
+        if (deltaYaw != 0) {
+            double angle = Math.toRadians(deltaYaw);
+            double cos = cos(angle);
+            double sin = sin(angle);
+            double newCos = yawCos*cos - yawSin*sin;
+            double newSin = yawSin*cos + yawCos*sin;
+            double scale = renormalizationScale(newCos, newSin);
+            yawCos = newCos*scale;
+            yawSin = newSin*scale;
+            yawDegrees = wrapDegrees(yawDegrees + deltaYaw);
+        }
+        if (deltaPitch != 0) {
+            double angle = Math.toRadians(deltaPitch);
+            double cos = cos(angle);
+            double sin = sin(angle);
+            double newCos = pitchCos*cos - pitchSin*sin;
+            double newSin = pitchSin*cos + pitchCos*sin;
+            double scale = renormalizationScale(newCos, newSin);
+            pitchCos = newCos*scale;
+            pitchSin = newSin*scale;
+            pitchDegrees = wrapDegrees(pitchDegrees + deltaPitch);
+        }
+    }
+
+    /**
+     * Sets the yaw and pitch of this orientation
+     * @param yaw The yaw, in degrees
+     * @param pitch The pitch, in degrees
+     */
+    public void set(double yaw, double pitch) {
+        yawDegrees = wrapDegrees(yaw);
+        pitchDegrees = wrapDegrees(pitch);
+        yawCos = Math.cos(Math.toRadians(yawDegrees));
+        yawSin = Math.sin(Math.toRadians(yawDegrees));
+        pitchCos = Math.cos(Math.toRadians(pitchDegrees));
+        pitchSin = Math.sin(Math.toRadians(pitchDegrees));
+    }
+
+    /**
+     * Writes the unit vector pointing to the right of this orientation into out
+     * @param out The vector receiving the result
+     * @return out
+     */
+    public Vec3 getRight(Vec3 out) {
+        return out.set(yawCos, 0, -yawSin);
+    }
+
+    /**
+     * Writes the unit vector pointing upwards from this orientation into out
+     * @param out The vector receiving the result
+     * @return out
+     */
+    public Vec3 getUp(Vec3 out) {
+        return out.set(-pitchSin*yawSin, pitchCos, -pitchSin*yawCos);
+    }
+
+    /**
+     * Writes the unit vector this orientation faces along into out
+     * @param out The vector receiving the result
+     * @return out
+     */
+    public Vec3 getForward(Vec3 out) {
+        return out.set(pitchCos*yawSin, pitchSin, pitchCos*yawCos);
+    }
+
+    /**
+     * Returns the yaw of this orientation in degrees, between 0 and 360
+     * @return the yaw of this orientation in degrees
+     */
+    public double getYaw() {
+        return yawDegrees;
+    }
+
+    /**
+     * Returns the pitch of this orientation in degrees, between 0 and 360
+     * @return the pitch of this orientation in degrees
+     */
+    public double getPitch() {
+        return pitchDegrees;
+    }
+    private static double sin(double angle) {
+        if (Math.abs(angle) < SMALL_ANGLE) {
+            double angle2 = angle*angle;
+            return angle*(1 - angle2/6*(1 - angle2/20*(1 - angle2/42)));
+        }
+        return Math.sin(angle);
+    }
+    private static double cos(double angle) {
+        if (Math.abs(angle) < SMALL_ANGLE) {
+            double angle2 = angle*angle;
+            return 1 - angle2/2*(1 - angle2/12*(1 - angle2/30*(1 - angle2/56)));
+        }
+        return Math.cos(angle);
+    }
+
+    /**
+     * Returns the factor that brings a cosine/sine pair back to unit length, using
+     * one Newton step for 1/sqrt(x) since the pair is always very close to unit length
+     */
+    private static double renormalizationScale(double cos, double sin) {
+        return (3 - (cos*cos + sin*sin))/2;
+    }
+    private static double wrapDegrees(double degrees) {
+        degrees %= 360;
+        return (degrees < 0)? 360 + degrees : degrees;
+    }
+    @Override
+    public String toString() {
+        return String.format("Yaw: %.2f°, Pitch: %.2f°", yawDegrees, pitchDegrees);
+    }
+}
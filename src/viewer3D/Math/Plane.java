@@ -5,8 +5,9 @@ package viewer3D.Math;
  * @author Arik Dicks
  */
 public class Plane {
-    private Vector pointVector;
-    private Vector normalVector;
+    private final Vec3 point;
+    private final Vec3 normal;
+    private double d;
 
     /**
      *
@@ -14,8 +15,20 @@ public class Plane {
      * @param normalVector
      */
     public Plane (Vector pointVector, Vector normalVector) {
-        this.pointVector = pointVector;
-        this.normalVector = normalVector;
+        this.point = new Vec3(pointVector);
+        this.normal = new Vec3(normalVector);
+        this.d = normal.dot(point);
+    }
+
+    /**
+     * Constructs a plane through the given point with the given normal
+     * @param point A point on the plane
+     * @param normal The normal of the plane
+     */
+    public Plane (Vec3 point, Vec3 normal) {
+        this.point = point.copy();
+        this.normal = normal.copy();
+        this.d = normal.dot(point);
     }
 
     /**
@@ -25,7 +38,35 @@ public class Plane {
      * @param planeVector
      */
     public Plane (Vector pointVector1, Vector pointVector2, Vector planeVector) {
-        this.pointVector = pointVector1;
+        this.point = new Vec3(pointVector1);
+        this.normal = new Vec3();
+    }
+
+    /**
+     * Sets this plane to pass through the given three points, with a normal 
+     * following the right hand rule from point1 to point2 to point3
+     * @param point1 The first point
+     * @param point2 The second point
+     * @param point3 The third point
+     * @return this plane
+     */
+    public Plane set(Vec3 point1, Vec3 point2, Vec3 point3) {
+        return set(point1.x, point1.y, point1.z, point2.x, point2.y, point2.z, point3.x, point3.y, point3.z);
+    }
+
+    /**
+     * Sets this plane to pass through the three points with the given components, 
+     * with a normal following the right hand rule from the first to the third
+     * @return this plane
+     */
+    public Plane set(double x1, double y1, double z1, double x2, double y2, double z2,
+            double x3, double y3, double z3) {
+        double ax = x2 - x1, ay = y2 - y1, az = z2 - z1;
+        double bx = x3 - x1, by = y3 - y1, bz = z3 - z1;
+        normal.set(ay*bz - az*by, az*bx - ax*bz, ax*by - ay*bx).normalize();
+        point.set(x1, y1, z1);
+        d = normal.dot(point);
+        return this;
     }
 
     /**
@@ -33,7 +74,7 @@ public class Plane {
      * @return
      */
     public Vector getPointVector() {
-        return pointVector;
+        return point.toVector();
     }
 
     /**
@@ -41,7 +82,31 @@ public class Plane {
      * @return
      */
     public Vector getNormalVector() {
-        return normalVector;
+        return normal.toVector();
+    }
+
+    /**
+     * Returns the constant d of this plane in the equation N•X = d
+     * @return the constant d of this plane
+     */
+    public double getD() {
+        return d;
+    }
+
+    /**
+     * Returns the point of this plane; the returned vector must not be modified
+     * @return the point of this plane
+     */
+    public Vec3 getPoint() {
+        return point;
+    }
+
+    /**
+     * Returns the normal of this plane; the returned vector must not be modified
+     * @return the normal of this plane
+     */
+    public Vec3 getNormal() {
+        return normal;
     }
     /*
      * Let N be the normalVector    (the vector normal to the plane)
@@ -62,7 +127,7 @@ public class Plane {
      * @return 
     */
     public Vector getIntersectingVector(Vector startingVector, Vector directionVector) {
-        double scalingConstant = (normalVector.dot(pointVector.subtract(startingVector)))/(normalVector.dot(directionVector));
+        double scalingConstant = (d - dot(normal, startingVector))/dot(normal, directionVector);
 //        System.out.println("p - s: " + pointVector.subtract(startingVector));
 //        System.out.println("n•(p - s): " + normalVector.dot(pointVector.subtract(startingVector)));
 //        System.out.println("n•d: " +normalVector.dot(directionVector));
@@ -83,7 +148,7 @@ public class Plane {
         return startingVector.add(directionVector.multiply(scalingConstant));
     }
     public Vector getIntersectingVector(Vector positionVector) {
-        double scalingConstant = (pointVector.dot(normalVector))/(positionVector.dot(normalVector));
+        double scalingConstant = d/dot(normal, positionVector);
         if (scalingConstant == Double.POSITIVE_INFINITY || scalingConstant == Double.NEGATIVE_INFINITY) {
             //System.out.println(positionVector);
             return positionVector;
@@ -94,14 +159,77 @@ public class Plane {
         }
         return positionVector.multiply(scalingConstant);
     }
+
+    /**
+     * Writes the intersection of this plane and the line from the origin through 
+     * the given position into out, with the same conventions as getIntersectingVector(Vector)
+     * @param position A position vector
+     * @param out The vector receiving the intersection (may be position)
+     * @return out
+     */
+    public Vec3 intersectInto(Vec3 position, Vec3 out) {
+        double scalingConstant = d/(position.dot(normal));
+        if (scalingConstant == Double.POSITIVE_INFINITY || scalingConstant == Double.NEGATIVE_INFINITY) {
+            return out.set(position);
+        }
+        if (scalingConstant < 0) {
+            return position.scaleInto(1/(-1*scalingConstant), out);
+        }
+        return position.scaleInto(scalingConstant, out);
+    }
     public Vector lineIntersection(Vector directionVector) {
-        if (normalVector.dot(directionVector) == 0) {
+        double denominator = dot(normal, directionVector);
+        if (denominator == 0) {
             return null;
         }
-        double t = (normalVector.dot(pointVector) - normalVector.dot(directionVector)) / normalVector.dot(directionVector);
+        double t = (d - denominator) / denominator;
         return directionVector.add(directionVector.multiply(t));
     }
 
+    /**
+     * Writes the intersection of this plane and the ray from the origin along the 
+     * given direction into out
+     * @param directionVector The direction of the ray
+     * @param out The vector receiving the intersection
+     * @return out, or null if the ray is parallel to this plane
+     */
+    public Vec3 lineIntersection(Vec3 directionVector, Vec3 out) {
+        double t = intersectT(directionVector.x, directionVector.y, directionVector.z);
+        if (Double.isNaN(t)) {
+            return null;
+        }
+        return directionVector.scaleInto(t, out);
+    }
+
+    /**
+     * Returns the parameter t at which the ray from the origin along the given 
+     * direction meets this plane, ie. the intersection is t*direction
+     * @param dx The x component of the direction
+     * @param dy The y component of the direction
+     * @param dz The z component of the direction
+     * @return the ray parameter of the intersection, or NaN if the ray is parallel to this plane
+     */
+    public double intersectT(double dx, double dy, double dz) {
+        double denominator = normal.x*dx + normal.y*dy + normal.z*dz;
+        if (denominator == 0) {
+            return Double.NaN;
+        }
+        return d/denominator;
+    }
+
+    /**
+     * Returns the squared distance from the origin to the point where the ray along
+     * the given direction meets this plane
+     * @param dx The x component of the direction
+     * @param dy The y component of the direction
+     * @param dz The z component of the direction
+     * @return the squared distance to the intersection, or NaN if the ray is parallel to this plane
+     */
+    public double intersectDistanceSquared(double dx, double dy, double dz) {
+        double t = intersectT(dx, dy, dz);
+        return t*t*(dx*dx + dy*dy + dz*dz);
+    }
+
     /**
      * 
      * @param width
@@ -109,16 +237,19 @@ public class Plane {
      * @param vertices
      * @return
      */
-    public Vector[][] getGridOfVectors(int width, int height, Vector[] vertices) {
-        Vector[][] gridVectors = new Vector[height][width];
+    public Vec3[][] getGridOfVectors(int width, int height, Vector[] vertices) {
+        Vec3[][] gridVectors = new Vec3[height][width];
         for (int i = 0; i < gridVectors.length; i++) {
         //for (int i = gridVectors.length-1; i >= 0 ; i--) {
             double y = 2*((double)(i)/(height-1))-1;
             for (int j = 0; j < gridVectors[0].length; j++) {    
                 double x = 2*((double)j/(width-1))-1;
-                gridVectors[i][j] = new Vector(new double[]{x, y, 1});
+                gridVectors[i][j] = new Vec3(x, y, 1);
             }
         }
         return gridVectors;
     }
+    private static double dot(Vec3 vec3, Vector vector) {
+        return vec3.dot(vector.getComponent(0), vector.getComponent(1), vector.getComponent(2));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package viewer3D.Math;
+
+/**
+ * The portable BatchTransform backend, which transforms one point per iteration. 
+ * Also responsible for locating the optional vector backend
+ * @author Arik Dicks
+ */
+class ScalarBatchTransform implements BatchTransform {
+    private static final String VECTOR_BACKEND_CLASS = "viewer3D.Math.VectorBatchTransform";
+    static final BatchTransform INSTANCE = new ScalarBatchTransform();
+    static final BatchTransform VECTOR_INSTANCE = loadVectorBackend();
+
+    @Override
+    public void transform(double[] m, 
+            double[] srcX, double[] srcY, double[] srcZ, 
+            double[] dstX, double[] dstY, double[] dstZ, 
+            int offset, int count) {
+        double m0 = m[0], m1 = m[1], m2 = m[2], m3 = m[3];
+        double m4 = m[4], m5 = m[5], m6 = m[6], m7 = m[7];
+        double m8 = m[8], m9 = m[9], m10 = m[10], m11 = m[11];
+        int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            double x = srcX[i], y = srcY[i], z = srcZ[i];
+            dstX[i] = m0*x + m1*y + m2*z + m3;
+            dstY[i] = m4*x + m5*y + m6*z + m7;
+            dstZ[i] = m8*x + m9*y + m10*z + m11;
+        }
+    }
+    @Override
+    public String getName() {
+        return "Scalar";
+    }
+
+    /**
+     * Instantiates the vector backend if its class was compiled and can be linked
+     * against the running JVM
+     * @return the vector backend, or null if it is unavailable
+     */
+    private static BatchTransform loadVectorBackend() {
+        if (Boolean.getBoolean("viewer3D.simd.disabled")) {
+            return null;
+        }
+        try {
+            return (BatchTransform) Class.forName(VECTOR_BACKEND_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
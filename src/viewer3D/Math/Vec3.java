@@ -0,0 +1,238 @@
+package viewer3D.Math;
+
+/**
+ * A fixed-size, mutable 3 component vector. Unlike Vector, none of the operations
+ * on a Vec3 allocate; results are written either into this vector or into a
+ * caller supplied output vector, so Vec3's can be reused across frames
+ * @author Arik Dicks
+ */
+public class Vec3 {
+    public double x;
+    public double y;
+    public double z;
+
+    /**
+     * Constructs the zero vector
+     */
+    public Vec3() {
+    }
+
+    /**
+     * Constructs a vector with the given components
+     * @param x The x component
+     * @param y The y component
+     * @param z The z component
+     */
+    public Vec3(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Constructs a vector with the first three components of the given Vector
+     * @param vector A vector of at least 3 components
+     */
+    public Vec3(Vector vector) {
+        set(vector);
+    }
+
+    /**
+     * Sets the components of this vector
+     * @param x The x component
+     * @param y The y component
+     * @param z The z component
+     * @return this vector
+     */
+    public Vec3 set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * Sets the components of this vector to those of the given vector
+     * @param other Another vector
+     * @return this vector
+     */
+    public Vec3 set(Vec3 other) {
+        this.x = other.x;
+        this.y = other.y;
+        this.z = other.z;
+        return this;
+    }
+
+    /**
+     * Sets the components of this vector to the first three components of the given Vector
+     * @param vector A vector of at least 3 components
+     * @return this vector
+     */
+    public Vec3 set(Vector vector) {
+        this.x = vector.getComponent(0);
+        this.y = vector.getComponent(1);
+        this.z = vector.getComponent(2);
+        return this;
+    }
+
+    /**
+     * Adds the given vector to this vector
+     * @param other Another vector
+     * @return this vector
+     */
+    public Vec3 add(Vec3 other) {
+        x += other.x;
+        y += other.y;
+        z += other.z;
+        return this;
+    }
+
+    /**
+     * Subtracts the given vector from this vector
+     * @param other Another vector
+     * @return this vector
+     */
+    public Vec3 sub(Vec3 other) {
+        x -= other.x;
+        y -= other.y;
+        z -= other.z;
+        return this;
+    }
+
+    /**
+     * Multiplies this vector by the given scalar
+     * @param scalar A scalar
+     * @return this vector
+     */
+    public Vec3 scale(double scalar) {
+        x *= scalar;
+        y *= scalar;
+        z *= scalar;
+        return this;
+    }
+
+    /**
+     * Writes the sum of this vector and the given vector into out
+     * @param other Another vector
+     * @param out The vector receiving the result (may be this or other)
+     * @return out
+     */
+    public Vec3 addInto(Vec3 other, Vec3 out) {
+        return out.set(x + other.x, y + other.y, z + other.z);
+    }
+
+    /**
+     * Writes the difference of this vector and the given vector into out
+     * @param other Another vector
+     * @param out The vector receiving the result (may be this or other)
+     * @return out
+     */
+    public Vec3 subInto(Vec3 other, Vec3 out) {
+        return out.set(x - other.x, y - other.y, z - other.z);
+    }
+
+    /**
+     * Writes the product of this vector and the given scalar into out
+     * @param scalar A scalar
+     * @param out The vector receiving the result (may be this)
+     * @return out
+     */
+    public Vec3 scaleInto(double scalar, Vec3 out) {
+        return out.set(x*scalar, y*scalar, z*scalar);
+    }
+
+    /**
+     * Writes the product of the given 3x3 matrix and this vector into out
+     * @param matrix A 3x3 matrix
+     * @param out The vector receiving the result (may be this)
+     * @return out
+     */
+    public Vec3 transformInto(Matrix matrix, Vec3 out) {
+        double[][] m = matrix.matrix;
+        return out.set(
+                m[0][0]*x + m[0][1]*y + m[0][2]*z,
+                m[1][0]*x + m[1][1]*y + m[1][2]*z,
+                m[2][0]*x + m[2][1]*y + m[2][2]*z);
+    }
+
+    /**
+     * Writes the cross product of this vector and the given vector into out
+     * @param other Another vector
+     * @param out The vector receiving the result (may be this or other)
+     * @return out
+     */
+    public Vec3 crossInto(Vec3 other, Vec3 out) {
+        return out.set(
+                y*other.z - z*other.y,
+                z*other.x - x*other.z,
+                x*other.y - y*other.x);
+    }
+
+    /**
+     * Returns the dot product of this vector and the given vector
+     * @param other Another vector
+     * @return the dot product of this vector and the given vector
+     */
+    public double dot(Vec3 other) {
+        return x*other.x + y*other.y + z*other.z;
+    }
+
+    /**
+     * Returns the dot product of this vector and the vector described by the given components
+     * @param x The x component
+     * @param y The y component
+     * @param z The z component
+     * @return the dot product
+     */
+    public double dot(double x, double y, double z) {
+        return this.x*x + this.y*y + this.z*z;
+    }
+
+    /**
+     * Returns the squared length of this vector
+     * @return the squared length of this vector
+     */
+    public double lengthSquared() {
+        return x*x + y*y + z*z;
+    }
+
+    /**
+     * Returns the length of this vector
+     * @return the length of this vector
+     */
+    public double length() {
+        return Math.sqrt(x*x + y*y + z*z);
+    }
+
+    /**
+     * Scales this vector to a length of 1, leaving the zero vector unchanged
+     * @return this vector
+     */
+    public Vec3 normalize() {
+        double lengthSquared = x*x + y*y + z*z;
+        if (lengthSquared != 0) {
+            scale(1/Math.sqrt(lengthSquared));
+        }
+        return this;
+    }
+
+    /**
+     * Returns a new Vector with the same components as this vector
+     * @return a new Vector with the same components as this vector
+     */
+    public Vector toVector() {
+        return new Vector(new double[]{x, y, z});
+    }
+
+    /**
+     * Returns a copy of this vector
+     * @return a copy of this vector
+     */
+    public Vec3 copy() {
+        return new Vec3(x, y, z);
+    }
+    @Override
+    public String toString() {
+        return String.format("{%.2f, %.2f, %.2f}", x, y, z);
+    }
+}
@@ -1,6 +1,7 @@
 package viewer3D.Polyhedrons;
 
 import java.awt.Color;
+import viewer3D.Math.BoundingVolume;
 import viewer3D.Math.Vector;
 import viewer3D.GraphicsEngine.Polygon;
 //import viewer3D.PolygonObject;
@@ -14,6 +15,7 @@ public class Axes3D implements Polyhedron {
     private static String shapeName = "Axes3D";
     private static int numID = 1;
     private Polygon[] polygons;
+    private final BoundingVolume bounds;
     private Color edgeColor = Color.RED;
 
     /**
@@ -59,6 +61,7 @@ public class Axes3D implements Polyhedron {
         polygons[2].setPolygonID("Z-Axis");
         
         numID++;
+        bounds = Polyhedron.enclose(polygons);
     }
 
     /**
@@ -87,4 +90,13 @@ public class Axes3D implements Polyhedron {
     public Vector getNormal() {
         return normalVector;
     }
+
+    /**
+     *
+     * @return
+     */
+    @Override
+    public BoundingVolume getBounds() {
+        return bounds;
+    }
 }
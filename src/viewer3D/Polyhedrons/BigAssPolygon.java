@@ -2,10 +2,12 @@ package viewer3D.Polyhedrons;
 
 import java.awt.Color;
 import viewer3D.GraphicsEngine.Polygon;
+import viewer3D.Math.BoundingVolume;
 import viewer3D.Math.Vector;
 
 public class BigAssPolygon implements Polyhedron {
     Polygon[] polygons;
+    final BoundingVolume bounds;
     public BigAssPolygon() {
         polygons = new Polygon[]{new Polygon(new Vector[]{
             new Vector(new double[]{2, 0, 2}),
@@ -13,6 +15,7 @@ public class BigAssPolygon implements Polyhedron {
             new Vector(new double[]{0, 2, 2})
             })};
         polygons[0].setFaceColor(Color.WHITE);
+        bounds = Polyhedron.enclose(polygons);
     }
     @Override
     public Polygon[] getPolygons() {
@@ -28,5 +31,9 @@ public class BigAssPolygon implements Polyhedron {
     public String getID() {
         throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
     }
-    
+
+    @Override
+    public BoundingVolume getBounds() {
+        return bounds;
+    }
 }
@@ -2,10 +2,12 @@ package viewer3D.Polyhedrons;
 
 import java.awt.Color;
 import viewer3D.GraphicsEngine.Polygon;
+import viewer3D.Math.BoundingVolume;
 import viewer3D.Math.Vector;
 
 public class Cuboid implements Polyhedron {
     private Polygon[] polygons;
+    private final BoundingVolume bounds;
     
     public Cuboid(int x, int y, int z, int width, int height, int depth) {
         polygons = new Polygon[12];
@@ -104,6 +106,7 @@ public class Cuboid implements Polyhedron {
         polygons[11].setFaceColor(Color.WHITE);
         polygons[10].setPolygonID("Bottom1");
         polygons[11].setPolygonID("Bottom2");
+        bounds = Polyhedron.enclose(polygons);
     }
     @Override
     public Polygon[] getPolygons() {
@@ -119,5 +122,9 @@ public class Cuboid implements Polyhedron {
     public String getID() {
         return "Cuboid";
     }
-    
+
+    @Override
+    public BoundingVolume getBounds() {
+        return bounds;
+    }
 }
@@ -1,6 +1,7 @@
 package viewer3D.Polyhedrons;
 
 import java.awt.Color;
+import viewer3D.Math.BoundingVolume;
 import viewer3D.Math.Vector;
 import viewer3D.GraphicsEngine.Polygon;
 //import viewer3D.PolygonObject;
@@ -14,7 +15,10 @@ public class Floor implements Polyhedron {
     private static String shapeName = "Floor";
     private static int numID = 1;
     private Vector[][] vertices;
+    private Vector[] sharedVertices;
     private Polygon[] polygons;
+    private int[] indices;
+    private final BoundingVolume bounds;
     private int xGridWidth;
     private int zGridLength;
     private int xNumOfSquares;
@@ -44,19 +48,23 @@ public class Floor implements Polyhedron {
         color2 = Color.BLUE;
         initVertices();
         initPolygons();
+        bounds = Polyhedron.enclose(polygons);
     }
     private void initVertices() {
         vertices = new Vector[xNumOfSquares+1][zNumOfSquares+1];
+        sharedVertices = new Vector[(xNumOfSquares+1)*(zNumOfSquares+1)];
         for (int i = 0; i < vertices.length; i++) {
             for (int j = 0; j < vertices[0].length; j++) {
                 double[] vertexArray = {(i*xGridWidth + xStart), 0, j*zGridLength + zStart};
                 vertices[i][j] = new Vector(vertexArray);
+                sharedVertices[getVertexIndex(i, j)] = vertices[i][j];
             }
         }
     }
     private void initPolygons() {
         int numOfPolygons = xNumOfSquares*zNumOfSquares*2;
         polygons = new Polygon[numOfPolygons];
+        indices = new int[numOfPolygons*3];
         int polygonIndex = 0;
         for (int i = 1; i < vertices.length; i++) {
             for (int j = 1; j < vertices[0].length; j++) {
@@ -64,6 +72,7 @@ public class Floor implements Polyhedron {
                         vertices[i][j-1],    
                         vertices[i-1][j-1],
                         vertices[i-1][j]});
+                setIndices(polygonIndex, getVertexIndex(i, j-1), getVertexIndex(i-1, j-1), getVertexIndex(i-1, j));
                 polygons[polygonIndex].setShapeID(shapeName +"_"+ numID);
                 polygons[polygonIndex].setPolygonID("Square_p1: " + "x"+i + "," + "y"+j);
                 switch ((i+j)%2) {
@@ -78,6 +87,7 @@ public class Floor implements Polyhedron {
                         vertices[i][j],
                         vertices[i][j-1],
                         vertices[i-1][j]});
+                setIndices(polygonIndex, getVertexIndex(i, j), getVertexIndex(i, j-1), getVertexIndex(i-1, j));
                 polygons[polygonIndex].setShapeID(shapeName +"_"+ numID);
                 polygons[polygonIndex].setPolygonID("Square_p2: " + "x"+i + "," + "y"+j);
                 switch ((i+j)%2) {
@@ -92,6 +102,14 @@ public class Floor implements Polyhedron {
             }
         }
     }
+    private int getVertexIndex(int i, int j) {
+        return i*(zNumOfSquares+1) + j;
+    }
+    private void setIndices(int polygonIndex, int index1, int index2, int index3) {
+        indices[polygonIndex*3] = index1;
+        indices[polygonIndex*3 + 1] = index2;
+        indices[polygonIndex*3 + 2] = index3;
+    }
 
     /**
      *
@@ -119,4 +137,32 @@ public class Floor implements Polyhedron {
     public Vector getNormal() {
         return normalVector;
     }
+
+    /**
+     *
+     * @return
+     */
+    @Override
+    public BoundingVolume getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Returns the vertices of the grid, shared by the squares around them, in rows of 
+     * constant x
+     * @return the vertices of the grid
+     */
+    @Override
+    public Vector[] getVertices() {
+        return sharedVertices;
+    }
+
+    /**
+     * Returns the indices into the grid vertices of the corners of each triangle
+     * @return the vertex indices of the triangles of the grid
+     */
+    @Override
+    public int[] getIndices() {
+        return indices;
+    }
 }
\ No newline at end of file
@@ -1,5 +1,10 @@
 package viewer3D.Polyhedrons;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import viewer3D.Math.BoundingVolume;
 import viewer3D.Math.Vector;
 import viewer3D.GraphicsEngine.Polygon;
 
@@ -26,4 +31,95 @@ public interface Polyhedron {
      * @return
      */
     public String getID();
+
+    /**
+     * Returns the bounding box and sphere of this polyhedron, computed when it was 
+     * constructed
+     * @return the bounding volume of this polyhedron
+     */
+    public BoundingVolume getBounds();
+
+    /**
+     * Returns the distinct vertices of this polyhedron, which its polygons share by 
+     * reference. By default they are collected from the polygons, in the order they 
+     * are first used
+     * @return the distinct vertices of this polyhedron
+     */
+    public default Vector[] getVertices() {
+        return collectVertices(getPolygons());
+    }
+
+    /**
+     * Returns the indices into getVertices() of the vertices of the polygons of this
+     * polyhedron, three per triangular polygon, in order
+     * @return the vertex indices of the polygons of this polyhedron
+     */
+    public default int[] getIndices() {
+        return index(getPolygons(), getVertices());
+    }
+
+    /**
+     * Returns the bounding volume of the vertices of the given polygons
+     * @param polygons A set of polygons
+     * @return the bounding volume of the polygons
+     */
+    public static BoundingVolume enclose(Polygon[] polygons) {
+        int vertexCount = 0;
+        for (Polygon polygon : polygons) {
+            vertexCount += polygon.getVertices().length;
+        }
+        Vector[] vertices = new Vector[vertexCount];
+        int vertexIndex = 0;
+        for (Polygon polygon : polygons) {
+            for (Vector vertex : polygon.getVertices()) {
+                vertices[vertexIndex++] = vertex;
+            }
+        }
+        return new BoundingVolume(vertices);
+    }
+
+    /**
+     * Returns the distinct vertices of the given polygons, compared by reference, in 
+     * the order they are first used
+     * @param polygons A set of polygons
+     * @return the distinct vertices of the polygons
+     */
+    public static Vector[] collectVertices(Polygon[] polygons) {
+        Map<Vector, Integer> indices = new IdentityHashMap<>();
+        List<Vector> vertices = new ArrayList<>();
+        for (Polygon polygon : polygons) {
+            for (Vector vertex : polygon.getVertices()) {
+                if (indices.putIfAbsent(vertex, vertices.size()) == null) {
+                    vertices.add(vertex);
+                }
+            }
+        }
+        return vertices.toArray(new Vector[vertices.size()]);
+    }
+
+    /**
+     * Returns the indices of the vertices of the given triangular polygons in the given
+     * vertex array, compared by reference, three per polygon
+     * @param polygons A set of triangular polygons
+     * @param vertices The vertices the polygons are made of
+     * @return the vertex indices of the polygons
+     * @throws IllegalArgumentException if a polygon has a vertex not in the array
+     */
+    public static int[] index(Polygon[] polygons, Vector[] vertices) {
+        Map<Vector, Integer> vertexIndices = new IdentityHashMap<>();
+        for (int i = 0; i < vertices.length; i++) {
+            vertexIndices.put(vertices[i], i);
+        }
+        int[] indices = new int[polygons.length*3];
+        for (int i = 0; i < polygons.length; i++) {
+            for (int j = 0; j < 3; j++) {
+                Integer vertexIndex = vertexIndices.get(polygons[i].getVertex(j));
+                if (vertexIndex == null) {
+                    throw new IllegalArgumentException("Vertex " + j + " of polygon " + i + " is not a shared vertex");
+                }
+                indices[i*3 + j] = vertexIndex;
+            }
+        }
+        return indices;
+    }
 }
@@ -1,6 +1,7 @@
 package viewer3D.Polyhedrons;
 
 import java.awt.Color;
+import viewer3D.Math.BoundingVolume;
 import viewer3D.Math.Vector;
 import viewer3D.GraphicsEngine.Polygon;
 //import viewer3D.PolygonObject;
@@ -14,6 +15,7 @@ public class Pyramid implements Polyhedron {
     private static String shapeName = "Pyramid";
     private static int numID = 1;
     private Polygon[] polygons;
+    private final BoundingVolume bounds;
     private Color faceColor = Color.WHITE;
     private Color edgeColor = Color.BLACK;
 
@@ -81,6 +83,7 @@ public class Pyramid implements Polyhedron {
         polygons[2] = p3;
         polygons[3] = p4;
         numID++;
+        bounds = Polyhedron.enclose(polygons);
     }
 
     /**
@@ -109,4 +112,13 @@ public class Pyramid implements Polyhedron {
     public Vector getNormal() {
         return normalVector;
     }
+
+    /**
+     *
+     * @return
+     */
+    @Override
+    public BoundingVolume getBounds() {
+        return bounds;
+    }
 }